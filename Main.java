@@ -299,7 +299,7 @@ public class Main {
         } else {
             System.out.println("\nVehicles Needing Maintenance");
             for (Vehicle v : needsMaintenance) {
-                System.out.println("ID: " + v.getId() + ", Type: " + v.getClass().getSimpleName() + ", Mileage: " + v.getCurrentMileage() + " km");
+                System.out.println("ID: " + v.getId() + ", Type: " + v.getType() + ", Mileage: " + v.getCurrentMileage() + " km");
             }
         }
     }
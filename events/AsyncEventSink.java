@@ -0,0 +1,189 @@
+package events;
+
+import vehicles.abstracts.Vehicle;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+Queues events in a fixed ring of reusable slots and lets one background thread
+turn them into text and print them a batch at a time. Callers only copy a few
+fields into a slot, so they never format strings or wait on the console.
+If the ring is full, callers wait for the writer to catch up rather than lose messages.
+
+Nothing here takes a lock. A caller claims the next sequence number by
+compare-and-set on tail, fills that slot and then publishes it by writing the
+number into the slot; the writer prints slots in sequence order as they are
+published and moves head past them, which hands the slot back to callers.
+ */
+public class AsyncEventSink implements EventSink, AutoCloseable {
+    // How long a waiting caller or the writer parks before looking again
+    private static final long PARK_NANOS = 100_000;
+
+    // One queued message; slots are reused, never reallocated
+    private static class Slot {
+        FleetEvent event;
+        Vehicle vehicle;
+        double value;
+        double detail;
+        String text;        // set for info/warning messages
+        boolean warning;
+        // sequence number of the message in this slot once it is filled, -1 before the first
+        volatile long sequence = -1;
+    }
+
+    private final Slot[] ring;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Thread writer;
+    private final StringBuilder batch = new StringBuilder();
+
+    // tail = next sequence to claim, head = next to print, printed = everything below is on the stream
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile long printed;
+    private volatile boolean closed;
+    private volatile boolean writerParked;
+
+    public AsyncEventSink(int capacity) {
+        this(capacity, System.out, System.err);
+    }
+
+    public AsyncEventSink(int capacity, PrintStream out, PrintStream err) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        this.out = out;
+        this.err = err;
+        this.writer = new Thread(this::drainLoop, "fleet-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void vehicleEvent(FleetEvent event, Vehicle vehicle, double value, double detail) {
+        enqueue(event, vehicle, value, detail, null, false);
+    }
+
+    @Override
+    public void info(String message) {
+        enqueue(null, null, 0, 0, message, false);
+    }
+
+    @Override
+    public void warning(String message) {
+        enqueue(null, null, 0, 0, message, true);
+    }
+
+    // Copies the message into the next free slot, waiting if the ring is full.
+    // Messages are dropped once the sink is closed or its writer has died.
+    private void enqueue(FleetEvent event, Vehicle vehicle, double value, double detail,
+                         String text, boolean warning) {
+        long seq;
+        while (true) {
+            if (closed || !writer.isAlive()) return;
+            seq = tail.get();
+            if (seq - head >= ring.length) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+                if (Thread.currentThread().isInterrupted()) return;
+            } else if (tail.compareAndSet(seq, seq + 1)) {
+                break;
+            }
+        }
+        Slot slot = ring[(int) (seq % ring.length)];
+        slot.event = event;
+        slot.vehicle = vehicle;
+        slot.value = value;
+        slot.detail = detail;
+        slot.text = text;
+        slot.warning = warning;
+        slot.sequence = seq;
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Blocks until everything queued so far has been printed
+    public void flush() throws InterruptedException {
+        long target = tail.get();
+        while (printed < target && writer.isAlive()) {
+            LockSupport.parkNanos(this, PARK_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // Prints whatever is still queued and stops the writer thread. If the caller is
+    // interrupted it stops waiting, keeps its interrupt flag and the rest may be lost.
+    @Override
+    public void close() {
+        try {
+            flush();
+            closed = true;
+            LockSupport.unpark(writer);
+            writer.join();
+        } catch (InterruptedException e) {
+            closed = true;
+            LockSupport.unpark(writer);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        long next = 0;
+        while (true) {
+            Slot slot = ring[(int) (next % ring.length)];
+            if (slot.sequence != next) {
+                flushBatch();
+                printed = next;
+                if (closed && tail.get() == next) return; // closed and empty
+                writerParked = true;
+                if (slot.sequence != next && !closed) {
+                    LockSupport.park(this);
+                } else if (slot.sequence != next) {
+                    // closed, but a caller that got in first is still filling its slot
+                    Thread.onSpinWait();
+                }
+                writerParked = false;
+                continue;
+            }
+            try {
+                if (slot.text == null) {
+                    batch.append(slot.vehicle.describeEvent(slot.event, slot.value, slot.detail)).append(System.lineSeparator());
+                } else if (slot.warning) {
+                    flushBatch();
+                    err.println(slot.text);
+                } else {
+                    batch.append(slot.text).append(System.lineSeparator());
+                }
+            } catch (RuntimeException e) {
+                // one bad vehicle must not take the writer down with it
+                flushBatch();
+                err.println("Warning: Could not describe " + slot.event + " event: " + e);
+            }
+            slot.vehicle = null;
+            slot.text = null;
+            next++;
+            head = next;
+            if (next - printed >= ring.length) {
+                // keep flush() moving while callers never let the ring run dry
+                flushBatch();
+                printed = next;
+            }
+        }
+    }
+
+    private void flushBatch() {
+        if (batch.length() > 0) {
+            out.print(batch);
+            out.flush();
+            batch.setLength(0);
+        }
+    }
+}
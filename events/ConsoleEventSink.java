@@ -0,0 +1,21 @@
+package events;
+
+import vehicles.abstracts.Vehicle;
+
+// Prints every message straight away, the way the program always has
+public class ConsoleEventSink implements EventSink {
+    @Override
+    public void vehicleEvent(FleetEvent event, Vehicle vehicle, double value, double detail) {
+        System.out.println(vehicle.describeEvent(event, value, detail));
+    }
+
+    @Override
+    public void info(String message) {
+        System.out.println(message);
+    }
+
+    @Override
+    public void warning(String message) {
+        System.err.println(message);
+    }
+}
@@ -0,0 +1,21 @@
+package events;
+
+import vehicles.abstracts.Vehicle;
+
+/**
+Where vehicle and fleet messages go instead of straight to System.out.
+Vehicle events carry raw values, the text is only built if the sink
+actually shows it (see Vehicle.describeEvent).
+ */
+public interface EventSink {
+    void vehicleEvent(FleetEvent event, Vehicle vehicle, double value, double detail);
+
+    void info(String message);
+
+    void warning(String message);
+
+    // False when messages are thrown away, so callers can skip building them
+    default boolean isEnabled() {
+        return true;
+    }
+}
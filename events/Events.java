@@ -0,0 +1,51 @@
+package events;
+
+import vehicles.abstracts.Vehicle;
+
+// Holds the sink every vehicle and fleet manager reports to (the console by default)
+public final class Events {
+    private static volatile EventSink sink = new ConsoleEventSink();
+    // Threads doing bulk work that reports its outcome in one result instead of per vehicle
+    private static final ThreadLocal<Boolean> quiet = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private Events() {
+    }
+
+    public static EventSink sink() {
+        return sink;
+    }
+
+    public static void setSink(EventSink newSink) {
+        sink = (newSink == null) ? new QuietEventSink() : newSink;
+    }
+
+    public static void publish(FleetEvent event, Vehicle vehicle, double value, double detail) {
+        EventSink s = sink;
+        if (s.isEnabled() && !quiet.get()) {
+            s.vehicleEvent(event, vehicle, value, detail);
+        }
+    }
+
+    public static void publish(FleetEvent event, Vehicle vehicle) {
+        publish(event, vehicle, 0, 0);
+    }
+
+    public static void info(String message) {
+        sink.info(message);
+    }
+
+    public static void warning(String message) {
+        sink.warning(message);
+    }
+
+    public static boolean isEnabled() {
+        return sink.isEnabled() && !quiet.get();
+    }
+
+    // Drops vehicle events published on the calling thread until set back, returns the old setting
+    public static boolean setQuiet(boolean on) {
+        boolean was = quiet.get();
+        quiet.set(on);
+        return was;
+    }
+}
@@ -0,0 +1,11 @@
+package events;
+
+// Things vehicles and the fleet report while they work
+public enum FleetEvent {
+    MOVED,          // value = distance
+    MOVE_FAILED,    // value = distance, not enough fuel
+    REFUELED,       // value = amount added, detail = fuel level afterwards
+    MAINTAINED,
+    ADDED,
+    REMOVED
+}
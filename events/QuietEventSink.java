@@ -0,0 +1,23 @@
+package events;
+
+import vehicles.abstracts.Vehicle;
+
+// Drops everything, for bulk runs where nobody reads the output
+public class QuietEventSink implements EventSink {
+    @Override
+    public void vehicleEvent(FleetEvent event, Vehicle vehicle, double value, double detail) {
+    }
+
+    @Override
+    public void info(String message) {
+    }
+
+    @Override
+    public void warning(String message) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -4,4 +4,9 @@ public class InsufficientFuelException extends Exception {
     public InsufficientFuelException(String message) {
         super(message);
     }
+
+    // withStackTrace false leaves the stack trace empty, for an empty tank the caller expects
+    public InsufficientFuelException(String message, boolean withStackTrace) {
+        super(message, null, true, withStackTrace);
+    }
 }
\ No newline at end of file
@@ -4,4 +4,9 @@ public class InvalidOperationException extends Exception {
     public InvalidOperationException(String message) {
         super(message);
     }
+
+    // No stack trace is recorded when withStackTrace is false
+    public InvalidOperationException(String message, boolean withStackTrace) {
+        super(message, null, true, withStackTrace);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package fleet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+Outcome of a fleet-wide operation: how many vehicles were processed,
+and which ones failed and why, instead of printing each failure.
+ */
+public class BulkResult {
+    public static class Failure {
+        private final String vehicleId;
+        private final String message;
+
+        public Failure(String vehicleId, String message) {
+            this.vehicleId = vehicleId;
+            this.message = message;
+        }
+
+        public String getVehicleId() {
+            return vehicleId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return vehicleId + ": " + message;
+        }
+    }
+
+    private int processed;
+    private final List<Failure> failures = new ArrayList<>();
+
+    void recordSuccess() {
+        processed++;
+    }
+
+    void recordFailure(String vehicleId, String message) {
+        processed++;
+        failures.add(new Failure(vehicleId, message));
+    }
+
+    // Adds another partial result (from another worker) into this one
+    void merge(BulkResult other) {
+        processed += other.processed;
+        failures.addAll(other.failures);
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getSucceeded() {
+        return processed - failures.size();
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isAllSucceeded() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Processed " + processed + " vehicle(s), " + getSucceeded() + " succeeded, " + failures.size() + " failed.";
+    }
+}
@@ -0,0 +1,78 @@
+package fleet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+Outcome of FleetManager.assignCargo: which vehicle each shipment went to, the
+total weight each vehicle took on, and the shipments no vehicle had room for.
+Shipments are referred to by their position in the weights passed in.
+ */
+public class CargoAssignment {
+    private final double[] weights;
+    private final String[] vehicleIds;
+    private final Map<String, Double> loads;
+
+    CargoAssignment(double[] weights, String[] vehicleIds, Map<String, Double> loads) {
+        this.weights = weights;
+        this.vehicleIds = vehicleIds;
+        this.loads = loads;
+    }
+
+    public int getShipmentCount() {
+        return weights.length;
+    }
+
+    // ID of the vehicle the shipment was loaded onto, or null if it was not placed
+    public String getVehicleId(int shipment) {
+        return vehicleIds[shipment];
+    }
+
+    // Weight added to each vehicle that took at least one shipment, in fleet order
+    public Map<String, Double> getLoads() {
+        return Collections.unmodifiableMap(loads);
+    }
+
+    // Positions of the shipments that did not fit anywhere, in the order given
+    public List<Integer> getUnplaced() {
+        List<Integer> unplaced = new ArrayList<>();
+        for (int i = 0; i < vehicleIds.length; i++) {
+            if (vehicleIds[i] == null) {
+                unplaced.add(i);
+            }
+        }
+        return unplaced;
+    }
+
+    public int getPlacedCount() {
+        return weights.length - getUnplaced().size();
+    }
+
+    public double getPlacedWeight() {
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (vehicleIds[i] != null) total += weights[i];
+        }
+        return total;
+    }
+
+    public double getUnplacedWeight() {
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (vehicleIds[i] == null) total += weights[i];
+        }
+        return total;
+    }
+
+    public boolean isAllPlaced() {
+        return getUnplaced().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Placed %d of %d shipment(s) (%.1f kg) on %d vehicle(s), %.1f kg unplaced.",
+                getPlacedCount(), weights.length, getPlacedWeight(), loads.size(), getUnplacedWeight());
+    }
+}
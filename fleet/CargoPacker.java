@@ -0,0 +1,184 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.CargoCarrier;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+Plans FleetManager.assignCargo: bin packing of shipments into the free cargo
+space of the fleet's CargoCarriers, heaviest shipment first.
+
+First fit keeps the free space of every vehicle in a tournament tree (an array
+heap where each node holds the largest free space below it), so the first
+vehicle with room is found by walking down from the root in O(log n). Best fit
+keeps the vehicles in a TreeMap on free space and takes the ceiling entry.
+
+Only the plan is built here, nothing is loaded. A shipment is only given to a
+vehicle when current cargo + planned load + shipment <= capacity, the same test
+loadCargo makes, so applying each vehicle's total with one loadCargo call cannot fail.
+ */
+class CargoPacker {
+    private final List<Vehicle> vehicles;
+    private final double[] current;
+    private final double[] capacity;
+    private final double[] planned;
+
+    CargoPacker(List<Vehicle> carriers) {
+        this.vehicles = carriers;
+        int n = carriers.size();
+        this.current = new double[n];
+        this.capacity = new double[n];
+        this.planned = new double[n];
+        for (int i = 0; i < n; i++) {
+            CargoCarrier c = (CargoCarrier) carriers.get(i);
+            current[i] = c.getCurrentCargo();
+            capacity[i] = c.getCargoCapacity();
+        }
+    }
+
+    CargoAssignment pack(double[] weights, PackingStrategy strategy) {
+        for (int i = 0; i < weights.length; i++) {
+            if (!(weights[i] > 0) || Double.isInfinite(weights[i])) {
+                throw new IllegalArgumentException("Shipment " + i + " has an invalid weight: " + weights[i]);
+            }
+        }
+        int[] assignedTo = new int[weights.length];
+        Arrays.fill(assignedTo, -1);
+        if (strategy == PackingStrategy.FIRST_FIT_DECREASING) {
+            firstFit(weights, heaviestFirst(weights), assignedTo);
+        } else {
+            bestFit(weights, heaviestFirst(weights), assignedTo);
+        }
+
+        String[] vehicleIds = new String[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (assignedTo[i] >= 0) vehicleIds[i] = vehicles.get(assignedTo[i]).getId();
+        }
+        Map<String, Double> loads = new LinkedHashMap<>();
+        for (int b = 0; b < planned.length; b++) {
+            if (planned[b] > 0) loads.put(vehicles.get(b).getId(), planned[b]);
+        }
+        return new CargoAssignment(weights.clone(), vehicleIds, loads);
+    }
+
+    // The vehicles the plan is for, with the weight each takes on and the cargo it had before
+    Vehicle vehicle(int bin) {
+        return vehicles.get(bin);
+    }
+
+    double plannedLoad(int bin) {
+        return planned[bin];
+    }
+
+    double cargoBefore(int bin) {
+        return current[bin];
+    }
+
+    int binCount() {
+        return planned.length;
+    }
+
+    // Shipment positions sorted by weight, heaviest first, ties in the order given
+    private static int[] heaviestFirst(double[] weights) {
+        Integer[] order = new Integer[weights.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(weights[b], weights[a]));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private boolean fits(int bin, double weight) {
+        return current[bin] + (planned[bin] + weight) <= capacity[bin];
+    }
+
+    private double freeSpace(int bin) {
+        return capacity[bin] - (current[bin] + planned[bin]);
+    }
+
+    // --- FIRST FIT ---
+
+    private void firstFit(double[] weights, int[] order, int[] assignedTo) {
+        int leaves = Integer.highestOneBit(Math.max(1, planned.length - 1)) << 1;
+        double[] tree = new double[leaves * 2];
+        Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+        for (int b = 0; b < planned.length; b++) {
+            tree[leaves + b] = freeSpace(b);
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+
+        for (int shipment : order) {
+            double weight = weights[shipment];
+            while (tree[1] >= weight) {
+                int node = 1;
+                while (node < leaves) {
+                    node = (tree[2 * node] >= weight) ? 2 * node : 2 * node + 1;
+                }
+                int bin = node - leaves;
+                if (fits(bin, weight)) {
+                    planned[bin] += weight;
+                    assignedTo[shipment] = bin;
+                    setLeaf(tree, node, freeSpace(bin));
+                    break;
+                }
+                // free space rounded up past the exact test, so this weight just doesn't fit
+                setLeaf(tree, node, Math.nextDown(weight));
+            }
+        }
+    }
+
+    private static void setLeaf(double[] tree, int node, double value) {
+        tree[node] = value;
+        for (node >>>= 1; node >= 1; node >>>= 1) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    // --- BEST FIT ---
+
+    private void bestFit(double[] weights, int[] order, int[] assignedTo) {
+        // free space -> vehicles with exactly that much, in fleet order
+        TreeMap<Double, ArrayDeque<Integer>> byFreeSpace = new TreeMap<>();
+        for (int b = 0; b < planned.length; b++) {
+            if (freeSpace(b) > 0) {
+                byFreeSpace.computeIfAbsent(freeSpace(b), k -> new ArrayDeque<>()).addLast(b);
+            }
+        }
+
+        for (int shipment : order) {
+            double weight = weights[shipment];
+            Map.Entry<Double, ArrayDeque<Integer>> entry;
+            while ((entry = byFreeSpace.ceilingEntry(weight)) != null) {
+                int bin = entry.getValue().pollFirst();
+                if (entry.getValue().isEmpty()) {
+                    byFreeSpace.remove(entry.getKey());
+                }
+                double space;
+                if (fits(bin, weight)) {
+                    planned[bin] += weight;
+                    assignedTo[shipment] = bin;
+                    space = freeSpace(bin);
+                } else {
+                    // free space rounded up past the exact test, so this weight just doesn't fit
+                    space = Math.nextDown(weight);
+                }
+                if (space > 0) {
+                    byFreeSpace.computeIfAbsent(space, k -> new ArrayDeque<>()).addLast(bin);
+                }
+                if (assignedTo[shipment] >= 0) break;
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+Compressed forms of the fleet CSV, all streamed with no temporary files.
+
+GZIP is one gzip stream of UTF-8 rows. BLOCKS is a "FLTZ" header (magic,
+version) followed by blocks of whole rows, each an int raw length, an int
+compressed length and a zlib stream of its own. Blocks are formatted and
+deflated on worker threads, and inflated and parsed the same way on load;
+only a couple of blocks per worker are in flight, so memory stays bounded
+however big the fleet is. Vehicles still reach the fleet in file order.
+ */
+final class CompressedCsv {
+    static final int BLOCK_MAGIC = 0x464C545A; // "FLTZ"
+    static final short VERSION = 1;
+    private static final int ROWS_PER_BLOCK = 8192;
+    private static final int MAX_BLOCK_BYTES = 1 << 28;
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    // Receives each non-empty row in file order, vehicle is null when the row couldn't be parsed
+    interface RowSink {
+        void row(String line, Vehicle vehicle) throws IOException;
+    }
+
+    // Parsed rows of one block
+    private static class ParsedBlock {
+        final List<String> lines = new ArrayList<>();
+        final List<Vehicle> vehicles = new ArrayList<>();
+    }
+
+    private CompressedCsv() {
+    }
+
+    // Looks at the first bytes without consuming them
+    static CsvCompression detect(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        byte[] head = in.readNBytes(4);
+        in.reset();
+        if (head.length >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B) {
+            return CsvCompression.GZIP;
+        }
+        if (head.length == 4 && ByteBuffer.wrap(head).getInt() == BLOCK_MAGIC) {
+            return CsvCompression.BLOCKS;
+        }
+        return CsvCompression.NONE;
+    }
+
+    // Line reader for NONE and GZIP files; plain files keep the platform charset FileReader used
+    static BufferedReader reader(InputStream in, CsvCompression compression) throws IOException {
+        if (compression == CsvCompression.GZIP) {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(in, STREAM_BUFFER), StandardCharsets.UTF_8));
+        }
+        return new BufferedReader(new InputStreamReader(in));
+    }
+
+    // Parses one row, or returns null if it is malformed
+    static Vehicle parse(String line) {
+        try {
+            return FleetManager.createVehicleFromCsv(line);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // --- WRITING ---
+
+    static void writeGzip(List<Vehicle> vehicles, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, STREAM_BUFFER);
+        VehicleCsvWriter csv = new VehicleCsvWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+        for (Vehicle v : vehicles) {
+            csv.write(v);
+        }
+        csv.flush();
+        gzip.finish();
+    }
+
+    static void writeBlocks(List<Vehicle> vehicles, OutputStream out, int parallelism) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BLOCK_MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        ForkJoinPool pool = FleetPools.pool(parallelism);
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        try {
+            for (int from = 0; from < vehicles.size(); from += ROWS_PER_BLOCK) {
+                List<Vehicle> rows = vehicles.subList(from, Math.min(from + ROWS_PER_BLOCK, vehicles.size()));
+                inFlight.add(pool.submit(() -> compressBlock(rows)));
+                if (inFlight.size() >= parallelism * 2) {
+                    data.write(await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                data.write(await(inFlight.poll()));
+            }
+            data.flush();
+        } finally {
+            FleetPools.cancelAll(inFlight);
+        }
+    }
+
+    // Formats and deflates one block, returned with its block header in front
+    private static byte[] compressBlock(List<Vehicle> rows) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows.size() * 96);
+        VehicleCsvWriter csv = new VehicleCsvWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8));
+        for (Vehicle v : rows) {
+            csv.write(v);
+        }
+        csv.flush();
+        byte[] input = raw.toByteArray();
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream block = new ByteArrayOutputStream(input.length / 4 + 64);
+            block.write(new byte[8], 0, 8);
+            byte[] buffer = new byte[STREAM_BUFFER];
+            while (!deflater.finished()) {
+                block.write(buffer, 0, deflater.deflate(buffer));
+            }
+            byte[] bytes = block.toByteArray();
+            ByteBuffer.wrap(bytes).putInt(input.length).putInt(bytes.length - 8);
+            return bytes;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // --- READING ---
+
+    // Reads a BLOCKS file from just before its magic number
+    static void readBlocks(InputStream in, int parallelism, RowSink sink) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != BLOCK_MAGIC) {
+            throw new IOException("Not a block-compressed fleet file.");
+        }
+        int version = data.readShort();
+        data.readShort();
+        if (version > VERSION) {
+            throw new IOException("Compressed file version " + version + " is newer than supported version " + VERSION + ".");
+        }
+        ForkJoinPool pool = FleetPools.pool(parallelism);
+        ArrayDeque<Future<ParsedBlock>> inFlight = new ArrayDeque<>();
+        try {
+            while (true) {
+                int rawLength;
+                try {
+                    rawLength = data.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int compressedLength = data.readInt();
+                if (rawLength < 0 || rawLength > MAX_BLOCK_BYTES || compressedLength < 0 || compressedLength > MAX_BLOCK_BYTES) {
+                    throw new IOException("Compressed block has a bad length, the file is corrupt.");
+                }
+                byte[] compressed = data.readNBytes(compressedLength);
+                if (compressed.length < compressedLength) {
+                    throw new EOFException("Compressed file is truncated.");
+                }
+                inFlight.add(pool.submit(() -> parseBlock(compressed, rawLength)));
+                if (inFlight.size() >= parallelism * 2) {
+                    deliver(await(inFlight.poll()), sink);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(await(inFlight.poll()), sink);
+            }
+        } finally {
+            FleetPools.cancelAll(inFlight);
+        }
+    }
+
+    private static ParsedBlock parseBlock(byte[] compressed, int rawLength) throws IOException {
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int filled = 0;
+            while (filled < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, filled, rawLength - filled);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                filled += n;
+            }
+            if (filled != rawLength || !inflater.finished()) {
+                throw new IOException("Compressed block does not match its length, the file is corrupt.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed block is corrupt: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+
+        ParsedBlock block = new ParsedBlock();
+        String text = new String(raw, StandardCharsets.UTF_8);
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) end = text.length();
+            String line = text.substring(start, (end > start && text.charAt(end - 1) == '\r') ? end - 1 : end);
+            start = end + 1;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            block.lines.add(line);
+            block.vehicles.add(parse(line));
+        }
+        return block;
+    }
+
+    private static void deliver(ParsedBlock block, RowSink sink) throws IOException {
+        for (int i = 0; i < block.lines.size(); i++) {
+            sink.row(block.lines.get(i), block.vehicles.get(i));
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing the fleet file.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // ForkJoinPool wraps checked exceptions thrown by a Callable, sometimes twice
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof IOException) throw (IOException) t;
+            }
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Could not process a compressed block.", cause);
+        }
+    }
+}
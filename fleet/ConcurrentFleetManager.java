@@ -0,0 +1,268 @@
+package fleet;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.CargoCarrier;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.PassengerCarrier;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+Thread-safe front for a FleetManager.
+
+Operations on single vehicles (move, refuel, cargo, passengers) take the shared
+side of a read-write lock plus one of a fixed set of striped locks picked from
+the vehicle ID, so threads working on different vehicles rarely wait for each other.
+While they run, the FleetManager only queues which vehicles changed (see
+FleetManager.setDeferChanges) instead of updating its shared indexes, so they
+don't meet on a fleet-wide lock there either.
+Adding/removing vehicles and whole-fleet operations (journeys, reports, saving)
+take the exclusive side, which first applies the queued changes, so they always
+see the fleet in a consistent state.
+
+The FleetManager should only be used through this class once it is wrapped, and
+vehicles returned by getVehicle should only be changed through this class.
+ */
+public class ConcurrentFleetManager {
+    private final FleetManager fleet;
+    private final ReentrantReadWriteLock fleetLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes;
+
+    // Something that changes one vehicle and may throw a checked exception
+    private interface VehicleOperation<E extends Exception> {
+        void apply(Vehicle v) throws E;
+    }
+
+    public ConcurrentFleetManager() {
+        this(new FleetManager());
+    }
+
+    public ConcurrentFleetManager(FleetManager fleet) {
+        this.fleet = fleet;
+        // a few stripes per core keeps two busy threads from sharing a lock most of the time
+        int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        fleet.setDeferChanges(true);
+    }
+
+    // Index of the striped lock guarding the vehicle with this ID
+    int stripeOf(String id) {
+        int h = id.toLowerCase(Locale.ROOT).hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private ReentrantLock stripeFor(String id) {
+        return stripes[stripeOf(id)];
+    }
+
+    // Takes the exclusive lock. No vehicle can change now, so the changes queued by
+    // single-vehicle operations are applied and the fleet updates its indexes directly again.
+    private void lockExclusive() {
+        fleetLock.writeLock().lock();
+        if (fleetLock.getWriteHoldCount() == 1) {
+            try {
+                fleet.setDeferChanges(false);
+            } catch (RuntimeException e) {
+                fleetLock.writeLock().unlock();
+                throw e;
+            }
+        }
+    }
+
+    private void unlockExclusive() {
+        if (fleetLock.getWriteHoldCount() == 1) {
+            fleet.setDeferChanges(true);
+        }
+        fleetLock.writeLock().unlock();
+    }
+
+    // Runs op on the vehicle while holding the shared fleet lock and the vehicle's stripe.
+    // The vehicle must implement the required interface (Vehicle.class accepts any vehicle).
+    private <E extends Exception> void withVehicle(String id, Class<?> required, VehicleOperation<E> op)
+            throws E, InvalidOperationException {
+        fleetLock.readLock().lock();
+        try {
+            Vehicle v = fleet.getVehicle(id);
+            if (v == null) {
+                throw new InvalidOperationException("Vehicle with ID " + id + " not found.");
+            }
+            if (!required.isInstance(v)) {
+                throw new InvalidOperationException("Vehicle " + v.getId() + " is not a " + required.getSimpleName() + ".");
+            }
+            ReentrantLock stripe = stripeFor(id);
+            stripe.lock();
+            try {
+                op.apply(v);
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    // --- WHOLE-FLEET OPERATIONS (exclusive) ---
+
+    public void addVehicle(Vehicle v) throws InvalidOperationException {
+        lockExclusive();
+        try {
+            fleet.addVehicle(v);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException {
+        lockExclusive();
+        try {
+            fleet.removeVehicle(id);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public CargoAssignment assignCargo(double[] weights, PackingStrategy strategy) throws OverloadException {
+        lockExclusive();
+        try {
+            return fleet.assignCargo(weights, strategy);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public SeatAllocation bookGroup(int passengers) throws OverloadException {
+        lockExclusive();
+        try {
+            return fleet.bookGroup(passengers);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public List<SeatAllocation> bookGroups(int[] groups) throws OverloadException {
+        lockExclusive();
+        try {
+            return fleet.bookGroups(groups);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public FuelPlan planFuel(Map<String, double[]> routes, double refuelLiters) throws InvalidOperationException {
+        lockExclusive();
+        try {
+            return fleet.planFuel(routes, refuelLiters);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public void startAllJourneys(double distance) {
+        withExclusiveAccess(f -> {
+            f.startAllJourneys(distance);
+            return null;
+        });
+    }
+
+    public void refuelAll(double amount) {
+        withExclusiveAccess(f -> {
+            f.refuelAll(amount);
+            return null;
+        });
+    }
+
+    public void maintainAll() {
+        withExclusiveAccess(f -> {
+            f.maintainAll();
+            return null;
+        });
+    }
+
+    public SimulationResult simulate(double hours, double tripKm, double refuelLiters, int parallelism) {
+        return withExclusiveAccess(f -> f.simulate(hours, tripKm, refuelLiters, parallelism));
+    }
+
+    public String generateReport() {
+        return withExclusiveAccess(FleetManager::generateReport);
+    }
+
+    public void writeReport(Writer out, ReportFormat format) throws IOException {
+        lockExclusive();
+        try {
+            fleet.writeReport(out, format);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    public List<Vehicle> getVehiclesNeedingMaintenance() {
+        return withExclusiveAccess(FleetManager::getVehiclesNeedingMaintenance);
+    }
+
+    // Exclusive because the first query builds the dispatch indexes
+    public List<Vehicle> findDispatchCandidates(double cargoKg, int passengers, double distanceKm, int limit) {
+        return withExclusiveAccess(f -> f.findDispatchCandidates(cargoKg, passengers, distanceKm, limit));
+    }
+
+    // Runs any other FleetManager query or operation with no vehicle changing underneath it
+    public <T> T withExclusiveAccess(Function<FleetManager, T> action) {
+        lockExclusive();
+        try {
+            return action.apply(fleet);
+        } finally {
+            unlockExclusive();
+        }
+    }
+
+    // --- SINGLE-VEHICLE OPERATIONS (shared + striped) ---
+
+    public Vehicle getVehicle(String id) {
+        fleetLock.readLock().lock();
+        try {
+            return fleet.getVehicle(id);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    public void move(String id, double distance) throws InvalidOperationException {
+        withVehicle(id, Vehicle.class, v -> v.move(distance));
+    }
+
+    public void refuel(String id, double amount) throws InvalidOperationException {
+        withVehicle(id, FuelConsumable.class, v -> ((FuelConsumable) v).refuel(amount));
+    }
+
+    public void loadCargo(String id, double weight) throws InvalidOperationException, OverloadException {
+        withVehicle(id, CargoCarrier.class, v -> ((CargoCarrier) v).loadCargo(weight));
+    }
+
+    public void unloadCargo(String id, double weight) throws InvalidOperationException {
+        withVehicle(id, CargoCarrier.class, v -> ((CargoCarrier) v).unloadCargo(weight));
+    }
+
+    public void boardPassengers(String id, int count) throws InvalidOperationException, OverloadException {
+        withVehicle(id, PassengerCarrier.class, v -> ((PassengerCarrier) v).boardPassengers(count));
+    }
+
+    public void disembarkPassengers(String id, int count) throws InvalidOperationException {
+        withVehicle(id, PassengerCarrier.class, v -> ((PassengerCarrier) v).disembarkPassengers(count));
+    }
+
+    public void performMaintenance(String id) throws InvalidOperationException {
+        withVehicle(id, Maintainable.class, v -> ((Maintainable) v).performMaintenance());
+    }
+}
@@ -0,0 +1,486 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+Parses a fleet CSV file (the format saveToFile writes) in parallel.
+The file is cut into chunks that end on a line break, each chunk is memory-mapped
+and parsed by its own worker. Fields are located by byte offsets and numbers are
+parsed straight from the bytes, so the only Strings made per row are the ID and
+(when it was not seen just before) the model name. Bad rows are collected with
+their reason instead of throwing, and the caller adds the vehicles in file order.
+ */
+class CsvBulkLoader {
+    // Chunks are never smaller than this, so small files are parsed by one worker
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    // A mapped region can't be larger than this
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+    private static final int MAX_FIELDS = 16;
+    private static final int MODEL_CACHE_SIZE = 256;
+
+    // Exact powers of ten that a double holds without rounding
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // A row that was rejected while parsing, numbered within its chunk
+    static class Reject {
+        final int localLine;
+        final String line;
+        final String reason;
+
+        Reject(int localLine, String line, String reason) {
+            this.localLine = localLine;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    // What one worker produced: vehicles in file order with their line inside the chunk
+    static class ChunkResult {
+        final List<Vehicle> vehicles = new ArrayList<>();
+        int[] vehicleLines = new int[64];
+        final List<Reject> rejects = new ArrayList<>();
+        int lineCount;
+
+        void addVehicle(Vehicle v, int localLine) {
+            if (vehicles.size() == vehicleLines.length) {
+                vehicleLines = Arrays.copyOf(vehicleLines, vehicleLines.length * 2);
+            }
+            vehicleLines[vehicles.size()] = localLine;
+            vehicles.add(v);
+        }
+    }
+
+    private final Path path;
+    private final int parallelism;
+
+    CsvBulkLoader(Path path, int parallelism) {
+        this.path = path;
+        this.parallelism = parallelism;
+    }
+
+    // Parses the whole file, results are in file order
+    List<ChunkResult> parse() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            List<Callable<ChunkResult>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(() -> {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    return new ChunkParser(buffer).parse();
+                });
+            }
+            return runAll(tasks);
+        }
+    }
+
+    private List<ChunkResult> runAll(List<Callable<ChunkResult>> tasks) throws IOException {
+        try {
+            List<ChunkResult> results = new ArrayList<>();
+            for (Future<ChunkResult> future : FleetPools.pool(parallelism).invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + path, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Could not load " + path, cause);
+        }
+    }
+
+    // Start offsets of each chunk plus the file size; every chunk but the last ends just after a '\n'
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = size / (parallelism * 4L);
+        target = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES - 1, target));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long start = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (start < size) {
+            long end = start + target;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = nextLineStart(channel, end, size, probe);
+                if (end - start > MAX_CHUNK_BYTES) {
+                    throw new IOException("Line longer than " + MAX_CHUNK_BYTES + " bytes near offset " + start);
+                }
+            }
+            bounds.add(end);
+            start = end;
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    // Offset just after the first '\n' at or after position, or size if there is none
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses one mapped chunk. Not shared between threads, so the
+     * field offsets and scratch buffers are reused for every row.
+     */
+    private static class ChunkParser implements VehicleCsvCodec.Fields {
+        private final MappedByteBuffer buffer;
+        private final int[] fieldStart = new int[MAX_FIELDS];
+        private final int[] fieldEnd = new int[MAX_FIELDS];
+        private byte[] scratch = new byte[128];
+        // Recently seen model names, so repeated models share one String
+        private final String[] modelCache = new String[MODEL_CACHE_SIZE];
+        private final byte[][] modelCacheBytes = new byte[MODEL_CACHE_SIZE][];
+        // Set by the number parsers instead of throwing
+        private String error;
+
+        ChunkParser(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ChunkResult parse() {
+            ChunkResult result = new ChunkResult();
+            int limit = buffer.limit();
+            int pos = 0;
+            int line = 0;
+            while (pos < limit) {
+                int lineEnd = pos;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int end = lineEnd;
+                if (end > pos && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+                parseLine(pos, end, line, result);
+                line++;
+                pos = lineEnd + 1;
+            }
+            result.lineCount = line;
+            return result;
+        }
+
+        private void parseLine(int start, int end, int line, ChunkResult result) {
+            int fields = split(start, end);
+            if (fields == 0) {
+                return; // blank line
+            }
+            error = null;
+            Vehicle v = null;
+            try {
+                v = buildVehicle(fields);
+            } catch (Exception e) {
+                // whatever a vehicle constructor or setter rejects is this row's problem only
+                if (error == null) {
+                    error = (e.getMessage() != null) ? e.getMessage() : e.toString();
+                }
+            }
+            if (v != null && error == null) {
+                result.addVehicle(v, line);
+            } else {
+                result.rejects.add(new Reject(line, decode(start, end), error));
+            }
+        }
+
+        // Records the trimmed bounds of each comma-separated field, returns the field count (0 for a blank line)
+        private int split(int start, int end) {
+            int count = 0;
+            int fieldFrom = start;
+            boolean blank = true;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buffer.get(i) == ',') {
+                    if (count < MAX_FIELDS) {
+                        int s = fieldFrom;
+                        int e = i;
+                        while (s < e && isSpace(buffer.get(s))) s++;
+                        while (e > s && isSpace(buffer.get(e - 1))) e--;
+                        fieldStart[count] = s;
+                        fieldEnd[count] = e;
+                        if (e > s) blank = false;
+                    }
+                    count++;
+                    fieldFrom = i + 1;
+                }
+            }
+            return blank ? 0 : Math.min(count, MAX_FIELDS);
+        }
+
+        // Same columns as FleetManager.createVehicleFromCsv, the type's codec builds the vehicle.
+        // Returns null and sets error for a bad row.
+        private Vehicle buildVehicle(int fields) throws Exception {
+            if (fields < 9) {
+                error = "Expected at least 9 fields but found " + fields + ".";
+                return null;
+            }
+            VehicleType type = parseType(0);
+            if (type == null) {
+                error = "Unknown vehicle type: " + decode(fieldStart[0], fieldEnd[0]);
+                return null;
+            }
+            int needed = 9 + VehicleCodecs.forType(type).extraFields();
+            if (fields < needed) {
+                error = "Expected " + needed + " fields for a " + type + " but found " + fields + ".";
+                return null;
+            }
+            String id = decode(fieldStart[1], fieldEnd[1]);
+            String model = model(fieldStart[2], fieldEnd[2]);
+            double maxSpeed = parseDouble(3);
+            double mileage = parseDouble(4);
+            // field 5 is efficiency, which is calculated, so it is skipped
+            double fuelLevel = parseDouble(6);
+            boolean maintenanceNeeded = parseBoolean(7);
+            double mileageAtLastService = parseDouble(8);
+            if (error != null) return null;
+
+            Vehicle v = VehicleCodecs.forType(type).read(this, 9, id, model, maxSpeed);
+            if (error != null) return null;
+            FleetManager.restoreCommonState(v, mileage, fuelLevel, maintenanceNeeded, mileageAtLastService);
+            return v;
+        }
+
+        // --- FIELD PARSERS (work on the mapped bytes) ---
+        // A bad number sets error and reads as 0, the row is rejected once the codec returns
+
+        @Override
+        public int intField(int index) {
+            return parseInt(index);
+        }
+
+        @Override
+        public double doubleField(int index) {
+            return parseDouble(index);
+        }
+
+        @Override
+        public boolean booleanField(int index) {
+            return parseBoolean(index);
+        }
+
+        private VehicleType parseType(int field) {
+            int start = fieldStart[field];
+            int length = fieldEnd[field] - start;
+            for (VehicleType type : VehicleType.values()) {
+                String name = type.getDisplayName();
+                if (name.length() != length) continue;
+                int i = 0;
+                while (i < length && toLower(buffer.get(start + i)) == toLower((byte) name.charAt(i))) {
+                    i++;
+                }
+                if (i == length) return type;
+            }
+            return null;
+        }
+
+        // Boolean.parseBoolean rules: "true" in any case, everything else is false
+        private boolean parseBoolean(int field) {
+            int start = fieldStart[field];
+            if (fieldEnd[field] - start != 4) return false;
+            return toLower(buffer.get(start)) == 't' && toLower(buffer.get(start + 1)) == 'r'
+                    && toLower(buffer.get(start + 2)) == 'u' && toLower(buffer.get(start + 3)) == 'e';
+        }
+
+        private int parseInt(int field) {
+            int i = fieldStart[field];
+            int end = fieldEnd[field];
+            boolean negative = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negative = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == end) {
+                return numberError(field);
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return numberError(field);
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    return numberError(field);
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                return numberError(field);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Plain decimals like 120.0 or 1.5E7 with at most 15 significant digits
+         * are parsed directly: the digits fit a double exactly, so one multiply or
+         * divide by an exact power of ten gives the same result as Double.parseDouble.
+         * Anything else (long mantissas, NaN, Infinity) falls back to Double.parseDouble.
+         */
+        private double parseDouble(int field) {
+            int start = fieldStart[field];
+            int end = fieldEnd[field];
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negative = buffer.get(i) == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int significant = 0;
+            int exponent = 0;
+            boolean seenDot = false;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    digits++;
+                    if (mantissa != 0 || b != '0') {
+                        significant++;
+                        if (significant > 15) {
+                            return parseDoubleSlow(field);
+                        }
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (seenDot) exponent--;
+                } else if (b == '.' && !seenDot) {
+                    seenDot = true;
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) {
+                return parseDoubleSlow(field);
+            }
+            if (i < end) {
+                byte b = buffer.get(i);
+                if (b != 'e' && b != 'E') {
+                    return parseDoubleSlow(field);
+                }
+                i++;
+                boolean negativeExponent = false;
+                if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                    negativeExponent = buffer.get(i) == '-';
+                    i++;
+                }
+                if (i == end) {
+                    return parseDoubleSlow(field);
+                }
+                int value = 0;
+                for (; i < end; i++) {
+                    int digit = buffer.get(i) - '0';
+                    if (digit < 0 || digit > 9 || value > 1000) {
+                        return parseDoubleSlow(field);
+                    }
+                    value = value * 10 + digit;
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+            double result;
+            if (mantissa == 0) {
+                result = 0.0;
+            } else if (exponent >= 0 && exponent < POW10.length) {
+                result = mantissa * POW10[exponent];
+            } else if (exponent < 0 && -exponent < POW10.length) {
+                result = mantissa / POW10[-exponent];
+            } else {
+                return parseDoubleSlow(field);
+            }
+            return negative ? -result : result;
+        }
+
+        private double parseDoubleSlow(int field) {
+            try {
+                return Double.parseDouble(decode(fieldStart[field], fieldEnd[field]));
+            } catch (NumberFormatException e) {
+                return numberError(field);
+            }
+        }
+
+        private int numberError(int field) {
+            if (error == null) {
+                error = "Field " + field + " is not a valid number: " + decode(fieldStart[field], fieldEnd[field]);
+            }
+            return 0;
+        }
+
+        // --- STRINGS ---
+
+        // Model names repeat a lot, so the last String made for the same bytes is reused
+        private String model(int start, int end) {
+            int length = end - start;
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int slot = (hash ^ (hash >>> 16)) & (MODEL_CACHE_SIZE - 1);
+            byte[] cached = modelCacheBytes[slot];
+            if (cached != null && cached.length == length) {
+                int i = 0;
+                while (i < length && cached[i] == buffer.get(start + i)) {
+                    i++;
+                }
+                if (i == length) return modelCache[slot];
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            modelCacheBytes[slot] = bytes;
+            modelCache[slot] = new String(bytes, StandardCharsets.UTF_8);
+            return modelCache[slot];
+        }
+
+        private String decode(int start, int end) {
+            int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        private static int toLower(byte b) {
+            return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package fleet;
+
+/**
+How FleetManager.saveToFile compresses the CSV. loadFromFile recognizes all of
+them from the first bytes of the file, so callers never have to say which one.
+ */
+public enum CsvCompression {
+    // Plain text, as saveToFile has always written it
+    NONE,
+    // One gzip stream of UTF-8 CSV, readable with zcat
+    GZIP,
+    // Blocks of rows deflated on their own, so several cores can compress and decompress them
+    BLOCKS
+}
@@ -0,0 +1,740 @@
+package fleet;
+
+import events.Events;
+import exceptions.InvalidOperationException;
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+import vehicles.interfaces.VehicleListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+Fleet storage for fleets bigger than the heap. Vehicles live in an append-only
+record file and the heap only holds an offset index (ID hash, file offset and
+type in primitive arrays, 17 bytes per slot) plus a bounded cache of
+materialized vehicles. getVehicle and searchByType load records on demand; when
+the cache is full the least recently used vehicle is evicted, and written back
+first if it changed while cached.
+
+Record file (little-endian): 16-byte header (magic, version), then records of
+int length, int CRC32, kind, ID (short length + UTF-8) and, for vehicles, the
+VehicleBinary form. A written-back vehicle is appended again and its offset
+moved, a removal appends a tombstone; compact() drops the stale copies.
+Opening the file rebuilds the index in one scan and cuts off a torn last record;
+a bad record with more records after it fails the open instead.
+
+Vehicles stay tracked only while cached; changes made to a Vehicle object after
+it was evicted are not saved, so long-running callers should keep IDs rather
+than Vehicle objects. Read failures in getVehicle / searchByType surface as
+UncheckedIOException. Not thread-safe, like FleetManager.
+ */
+public class DiskBackedFleet implements AutoCloseable {
+    static final int MAGIC = 0x464C5442; // "FLTB"
+    static final short VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    // Record layout: length and CRC cover everything from KIND on
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int KIND = 8;
+    private static final int ID = 9;
+    private static final byte KIND_VEHICLE = 1;
+    private static final byte KIND_REMOVED = 2;
+
+    private static final long EMPTY = -1;
+    private static final long DELETED = -2;
+
+    private final Path path;
+    private FileChannel channel;
+    private long fileEnd;           // where the next record goes, pending bytes included
+
+    // Appended records wait here until the buffer fills or a read needs them
+    private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long pendingStart;      // file offset of the first pending byte
+    private ByteBuffer record = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN); // last record read
+    private final CRC32 crc = new CRC32();
+
+    // Offset index: open addressing over parallel arrays, offsets[slot] is EMPTY / DELETED for free slots
+    private long[] hashes;
+    private long[] offsets;
+    private byte[] types;
+    private int size;
+    private int usedSlots;          // live entries plus DELETED markers
+
+    // Materialized vehicles, least recently used first
+    private final int cacheCapacity;
+    private final LinkedHashMap<String, Cached> cache;
+    private final VehicleListener changeListener = this::onVehicleChanged;
+
+    private static class Cached {
+        final Vehicle vehicle;
+        int slot;
+        boolean dirty;
+
+        Cached(Vehicle vehicle, int slot) {
+            this.vehicle = vehicle;
+            this.slot = slot;
+        }
+    }
+
+    // Lets internal scans pass checked exceptions through
+    private interface VehicleAction {
+        void accept(Vehicle v) throws IOException;
+    }
+
+    private DiskBackedFleet(Path path, FileChannel channel, int cacheCapacity) {
+        this.path = path;
+        this.channel = channel;
+        this.cacheCapacity = cacheCapacity;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        resetIndex(1024);
+    }
+
+    /**
+     * Opens the record file, creating an empty one if it doesn't exist, and
+     * rebuilds the offset index from it. At most `cacheCapacity` vehicles are
+     * kept in memory at once.
+     */
+    public static DiskBackedFleet open(String filename, int cacheCapacity) throws IOException {
+        if (cacheCapacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1.");
+        }
+        Path path = Paths.get(filename);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        DiskBackedFleet fleet = new DiskBackedFleet(path, channel, cacheCapacity);
+        try {
+            if (channel.size() == 0) {
+                fleet.writeHeader(channel);
+                fleet.fileEnd = HEADER_BYTES;
+                fleet.pendingStart = HEADER_BYTES;
+            } else {
+                fleet.scan();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return fleet;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    // Size of the record file, stale copies included
+    public long getFileBytes() {
+        return fileEnd;
+    }
+
+    // --- FLEET OPERATIONS ---
+
+    // Writes the vehicle to disk and keeps it in the cache, rejecting duplicate IDs
+    public void addVehicle(Vehicle v) throws InvalidOperationException, IOException {
+        String key = FleetManager.idKey(v.getId());
+        long hash = hash(key);
+        if (cache.containsKey(key) || findSlot(key, hash) >= 0) {
+            throw new InvalidOperationException("Vehicle with ID " + v.getId() + " already exists.");
+        }
+        int slot = insert(key, hash, v);
+        cache(key, v, slot, false);
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException, IOException {
+        String key = (id == null) ? null : FleetManager.idKey(id);
+        int slot = (key == null) ? -1 : findSlot(key, hash(key));
+        if (slot < 0) {
+            throw new InvalidOperationException("Vehicle with ID " + id + " not found.");
+        }
+        append(KIND_REMOVED, VehicleBinary.encode(key), null, null);
+        offsets[slot] = DELETED;
+        size--;
+        Cached cached = cache.remove(key);
+        if (cached != null) {
+            detach(cached.vehicle);
+        }
+    }
+
+    // Returns the vehicle with the given ID (case-insensitive), or null if there is none
+    public Vehicle getVehicle(String id) {
+        if (id == null) return null;
+        String key = FleetManager.idKey(id);
+        Cached cached = cache.get(key);
+        if (cached != null) {
+            return cached.vehicle;
+        }
+        try {
+            int slot = findSlot(key, hash(key));
+            return (slot < 0) ? null : materialize(key, slot, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Returns all vehicles matching the given type name
+    public List<Vehicle> searchByType(String type) {
+        VehicleType vehicleType = VehicleType.fromName(type);
+        if (vehicleType == null) {
+            return new ArrayList<>();
+        }
+        return searchByType(vehicleType);
+    }
+
+    /**
+     * Loads every vehicle of the given type through the cache. If there are more
+     * of them than the cache holds, the earlier ones are evicted again before the
+     * list is returned; use forEachVehicle to change vehicles of a large type.
+     */
+    public List<Vehicle> searchByType(VehicleType type) {
+        List<Vehicle> result = new ArrayList<>();
+        try {
+            forEach(type, true, result::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    // Visits every vehicle through the cache, so changes made by the action are saved.
+    // The action must not add or remove vehicles.
+    public void forEachVehicle(Consumer<Vehicle> action) {
+        try {
+            forEach(null, true, action::accept);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // --- PERSISTENCE ---
+
+    // Writes back every changed cached vehicle and forces the file to disk
+    public void flush() throws IOException {
+        for (Cached cached : cache.values()) {
+            if (cached.dirty) {
+                writeBack(cached);
+            }
+        }
+        drain();
+        channel.force(false);
+    }
+
+    /**
+     * Replaces the fleet with the contents of a CSV file written by FleetManager.saveToFile
+     * (plain or compressed), streaming rows straight to disk so memory use doesn't grow with
+     * the file. The rows go to a new record file that is moved into place, like compact(),
+     * only once the whole CSV has been read; if the load fails the fleet is left as it was.
+     */
+    public void loadFromFile(String filename) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        DiskBackedFleet loaded;
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+            CsvCompression compression = CompressedCsv.detect(in);
+            loaded = new DiskBackedFleet(temp, FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), cacheCapacity);
+            try {
+                loaded.writeHeader(loaded.channel);
+                loaded.fileEnd = HEADER_BYTES;
+                loaded.pendingStart = HEADER_BYTES;
+                if (compression == CsvCompression.BLOCKS) {
+                    CompressedCsv.readBlocks(in, Runtime.getRuntime().availableProcessors(), loaded::loadRow);
+                } else {
+                    BufferedReader reader = CompressedCsv.reader(in, compression);
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.trim().isEmpty()) {
+                            continue;
+                        }
+                        loaded.loadRow(line, CompressedCsv.parse(line));
+                    }
+                }
+                loaded.drain();
+                loaded.channel.force(true);
+            } finally {
+                loaded.channel.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        channel.close();
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        // the old records are gone, so are the cached vehicles and anything pending for them
+        for (Cached cached : cache.values()) {
+            detach(cached.vehicle);
+        }
+        cache.clear();
+        pending.clear();
+        hashes = loaded.hashes;
+        offsets = loaded.offsets;
+        types = loaded.types;
+        size = loaded.size;
+        usedSlots = loaded.usedSlots;
+        fileEnd = loaded.fileEnd;
+        pendingStart = loaded.pendingStart;
+        Events.info("Fleet loaded successfully from " + filename);
+    }
+
+    // Appends one loaded row without caching it; v is null when the line couldn't be parsed
+    private void loadRow(String line, Vehicle v) throws IOException {
+        if (v != null) {
+            String key = FleetManager.idKey(v.getId());
+            long hash = hash(key);
+            if (findSlot(key, hash) >= 0) {
+                if (Events.isEnabled()) {
+                    Events.warning("Warning: Skipping duplicate vehicle ID in CSV: " + v.getId());
+                }
+                return;
+            }
+            try {
+                insert(key, hash, v);
+                return;
+            } catch (IllegalArgumentException e) {
+                // ID or model too long to store
+            }
+        }
+        if (Events.isEnabled()) {
+            Events.warning("Warning: Skipping malformed line in CSV: " + line);
+        }
+    }
+
+    // Writes the fleet as CSV without pulling it all into the cache
+    public void saveToFile(String filename) throws IOException {
+        try (Writer writer = new FileWriter(filename)) {
+            VehicleCsvWriter csv = new VehicleCsvWriter(writer);
+            forEach(null, false, csv::write);
+            csv.flush();
+            Events.info("Fleet saved successfully to " + filename);
+        }
+    }
+
+    // Empties the fleet and the record file
+    public void clear() throws IOException {
+        for (Cached cached : cache.values()) {
+            detach(cached.vehicle);
+        }
+        cache.clear();
+        pending.clear();
+        channel.truncate(HEADER_BYTES);
+        fileEnd = HEADER_BYTES;
+        pendingStart = HEADER_BYTES;
+        resetIndex(1024);
+    }
+
+    /**
+     * Rewrites the record file with only the current copy of each vehicle and
+     * moves it into place, so the space taken by written-back and removed
+     * vehicles is given back. Cached vehicles stay cached.
+     */
+    public void compact() throws IOException {
+        flush();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] moved = new long[offsets.length];
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            long position = HEADER_BYTES;
+            long written = HEADER_BYTES;
+            for (int slot = 0; slot < offsets.length; slot++) {
+                moved[slot] = offsets[slot];
+                if (offsets[slot] < 0) continue;
+                int length = readRecord(offsets[slot]);
+                if (buffer.remaining() < length) {
+                    written += writeAll(out, buffer, written);
+                }
+                buffer.put(record.array(), 0, length);
+                moved[slot] = position;
+                position += length;
+            }
+            writeAll(out, buffer, written);
+            out.force(true);
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileEnd = position;
+            pendingStart = position;
+        } finally {
+            if (!channel.isOpen()) {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+        }
+        offsets = moved;
+    }
+
+    // Writes back changes and closes the file; cached vehicles are no longer tracked
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (Cached cached : cache.values()) {
+                detach(cached.vehicle);
+            }
+            cache.clear();
+            channel.close();
+        }
+    }
+
+    // --- CACHE ---
+
+    private Vehicle materialize(String key, int slot, boolean keep) throws IOException {
+        String id = VehicleBinary.getString(record, ID);
+        Vehicle v;
+        try {
+            v = VehicleBinary.read(record, ID + VehicleBinary.stringBytes(record, ID), id);
+        } catch (Exception e) {
+            throw new IOException("Record for " + id + " is invalid: " + e.getMessage(), e);
+        }
+        if (keep) {
+            cache(key, v, slot, false);
+        }
+        return v;
+    }
+
+    private void cache(String key, Vehicle v, int slot, boolean dirty) throws IOException {
+        Cached cached = new Cached(v, slot);
+        cached.dirty = dirty;
+        cache.put(key, cached);
+        v.setListener(changeListener);
+        while (cache.size() > cacheCapacity) {
+            evictEldest();
+        }
+    }
+
+    private void evictEldest() throws IOException {
+        Iterator<Map.Entry<String, Cached>> it = cache.entrySet().iterator();
+        Cached eldest = it.next().getValue();
+        if (eldest.dirty) {
+            writeBack(eldest);
+        }
+        it.remove();
+        detach(eldest.vehicle);
+    }
+
+    // Appends the vehicle's current state and points its slot at the new copy
+    private void writeBack(Cached cached) throws IOException {
+        Vehicle v = cached.vehicle;
+        offsets[cached.slot] = append(KIND_VEHICLE, VehicleBinary.encode(v.getId()), v,
+                VehicleBinary.encode(v.getModel()));
+        cached.dirty = false;
+    }
+
+    // Called by a cached vehicle whenever its state changes
+    private void onVehicleChanged(Vehicle v, VehicleListener.Change change) {
+        Cached cached = cache.get(FleetManager.idKey(v.getId()));
+        if (cached != null && cached.vehicle == v) {
+            cached.dirty = true;
+        }
+    }
+
+    private void detach(Vehicle v) {
+        if (v.getListener() == changeListener) {
+            v.setListener(null);
+        }
+    }
+
+    // Visits live vehicles of one type (all if null), cached copies first.
+    // With keep == false uncached vehicles are decoded without entering the cache.
+    private void forEach(VehicleType type, boolean keep, VehicleAction action) throws IOException {
+        for (int slot = 0; slot < offsets.length; slot++) {
+            if (offsets[slot] < 0 || (type != null && types[slot] != type.ordinal())) continue;
+            // evictions may move other vehicles' offsets, so read this one's now
+            readRecord(offsets[slot]);
+            String key = FleetManager.idKey(VehicleBinary.getString(record, ID));
+            Cached cached = cache.get(key);
+            action.accept((cached != null) ? cached.vehicle : materialize(key, slot, keep));
+        }
+    }
+
+    // --- RECORD FILE ---
+
+    private void writeHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION);
+        header.position(HEADER_BYTES);
+        writeAll(out, header, 0);
+    }
+
+    // Queues a record and returns its file offset; vehicle and model are null for tombstones
+    private long append(byte kind, byte[] id, Vehicle v, byte[] model) throws IOException {
+        int length = 1 + 2 + id.length + ((v == null) ? 0 : VehicleBinary.size(v, model));
+        if (pending.remaining() < RECORD_HEADER_BYTES + length) {
+            drain();
+        }
+        long offset = fileEnd;
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER_BYTES);
+        pending.put(kind);
+        VehicleBinary.putString(pending, id);
+        if (v != null) {
+            VehicleBinary.write(v, model, pending);
+        }
+        crc.reset();
+        crc.update(pending.array(), start + KIND, length);
+        pending.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        fileEnd += RECORD_HEADER_BYTES + length;
+        return offset;
+    }
+
+    private void drain() throws IOException {
+        pendingStart += writeAll(channel, pending, pendingStart);
+    }
+
+    // Writes out what was put into the buffer and empties it, returns the byte count
+    private static int writeAll(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int total = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+        buffer.clear();
+        return total;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Record file ended early at offset " + position + ".");
+            }
+        }
+    }
+
+    // Reads the record at `offset` into `record` and returns its total length
+    private int readRecord(long offset) throws IOException {
+        if (offset >= pendingStart) {
+            drain();
+        }
+        record.clear();
+        record.limit((int) Math.min(record.capacity(), fileEnd - offset));
+        readFully(record, offset);
+        int length = RECORD_HEADER_BYTES + record.getInt(0);
+        if (length > record.capacity()) {
+            record = ByteBuffer.allocate(Math.max(length, record.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+            record.limit(length);
+            readFully(record, offset);
+        }
+        crc.reset();
+        crc.update(record.array(), KIND, length - RECORD_HEADER_BYTES);
+        if ((int) crc.getValue() != record.getInt(4)) {
+            throw new IOException("Record at offset " + offset + " is corrupt.");
+        }
+        return length;
+    }
+
+    // Rebuilds the index from the whole file; later records for an ID replace earlier ones
+    private void scan() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() >= HEADER_BYTES) {
+            readFully(header, 0);
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a disk-backed fleet file: " + path);
+        }
+        if (header.getShort(4) > VERSION) {
+            throw new IOException("Fleet file version " + header.getShort(4) + " is newer than supported version " + VERSION + ".");
+        }
+
+        long fileSize = channel.size();
+        fileEnd = fileSize;
+        pendingStart = fileSize;
+        ByteBuffer chunk = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long at = HEADER_BYTES;
+        while (at < fileSize) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), fileSize - at));
+            readFully(chunk, at);
+            int pos = 0;
+            while (pos + RECORD_HEADER_BYTES <= chunk.limit()) {
+                int length = chunk.getInt(pos);
+                if (length < 3 || length > chunk.limit() - pos - RECORD_HEADER_BYTES) break;
+                crc.reset();
+                crc.update(chunk.array(), pos + KIND, length);
+                if ((int) crc.getValue() != chunk.getInt(pos + 4)) break;
+                replay(chunk, pos, at + pos);
+                pos += RECORD_HEADER_BYTES + length;
+            }
+            if (pos == 0) break;
+            at += pos;
+        }
+        if (at < fileSize) {
+            if (!tornTail(at, fileSize)) {
+                // a bad record with intact ones after it is damage, not a crash; cutting it off would lose them
+                throw new IOException("Record at offset " + at + " of " + path + " is corrupt and "
+                        + (fileSize - at) + " byte(s) follow it.");
+            }
+            // a crash in the middle of an append leaves a partial record at the end
+            Events.warning("Warning: Dropping " + (fileSize - at) + " damaged byte(s) at the end of " + path);
+            channel.truncate(at);
+            fileEnd = at;
+            pendingStart = at;
+        }
+    }
+
+    // True when the bad record at `at` can only be the last append cut short by a crash:
+    // it claims to run up to or past the end of the file, or nothing but zeros follows it
+    private boolean tornTail(long at, long fileSize) throws IOException {
+        if (fileSize - at < RECORD_HEADER_BYTES) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header, at);
+        int length = header.getInt(0);
+        if (length >= 3 && at + RECORD_HEADER_BYTES + (long) length >= fileSize) {
+            return true;
+        }
+        ByteBuffer rest = ByteBuffer.allocate(BUFFER_BYTES);
+        for (long from = at; from < fileSize; from += rest.limit()) {
+            rest.clear();
+            rest.limit((int) Math.min(rest.capacity(), fileSize - from));
+            readFully(rest, from);
+            for (int i = 0; i < rest.limit(); i++) {
+                if (rest.get(i) != 0) return false;
+            }
+        }
+        return true;
+    }
+
+    private void replay(ByteBuffer in, int pos, long offset) throws IOException {
+        String key = FleetManager.idKey(VehicleBinary.getString(in, pos + ID));
+        long hash = hash(key);
+        int slot = findSlot(key, hash);
+        if (in.get(pos + KIND) == KIND_VEHICLE) {
+            byte type = in.get(VehicleBinary.typeAt(in, pos + ID + VehicleBinary.stringBytes(in, pos + ID)));
+            if (slot >= 0) {
+                offsets[slot] = offset;
+                types[slot] = type;
+            } else {
+                insertSlot(hash, offset, type);
+                size++;
+            }
+        } else if (slot >= 0) {
+            offsets[slot] = DELETED;
+            size--;
+        }
+    }
+
+    // --- OFFSET INDEX ---
+
+    // 64-bit FNV-1a of the lower-cased ID, so equal hashes almost always mean equal IDs
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 32);
+    }
+
+    private void resetIndex(int capacity) {
+        hashes = new long[capacity];
+        offsets = new long[capacity];
+        types = new byte[capacity];
+        Arrays.fill(offsets, EMPTY);
+        size = 0;
+        usedSlots = 0;
+    }
+
+    // Returns the slot holding this ID, or -1. Equal hashes are confirmed by reading
+    // the record, which is then left in `record`.
+    private int findSlot(String key, long hash) throws IOException {
+        int mask = offsets.length - 1;
+        int slot = (int) hash & mask;
+        while (offsets[slot] != EMPTY) {
+            if (offsets[slot] >= 0 && hashes[slot] == hash) {
+                readRecord(offsets[slot]);
+                if (key.equals(FleetManager.idKey(VehicleBinary.getString(record, ID)))) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Appends a new vehicle and indexes it without caching it
+    private int insert(String key, long hash, Vehicle v) throws IOException {
+        long offset = append(KIND_VEHICLE, VehicleBinary.encode(v.getId()), v, VehicleBinary.encode(v.getModel()));
+        int slot = insertSlot(hash, offset, (byte) v.getType().ordinal());
+        size++;
+        return slot;
+    }
+
+    private int insertSlot(long hash, long offset, byte type) {
+        if ((usedSlots + 1) * 3 > offsets.length * 2) {
+            rehash();
+        }
+        int mask = offsets.length - 1;
+        int slot = (int) hash & mask;
+        while (offsets[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (offsets[slot] == EMPTY) {
+            usedSlots++;
+        }
+        hashes[slot] = hash;
+        offsets[slot] = offset;
+        types[slot] = type;
+        return slot;
+    }
+
+    // Grows the table (or just drops DELETED markers) and moves cached entries to their new slots
+    private void rehash() {
+        int capacity = offsets.length;
+        while ((size + 1) * 2 > capacity) {
+            capacity *= 2;
+        }
+        long[] oldHashes = hashes;
+        long[] oldOffsets = offsets;
+        byte[] oldTypes = types;
+        int[] newSlot = new int[oldOffsets.length];
+        int live = size;
+        resetIndex(capacity);
+        for (int slot = 0; slot < oldOffsets.length; slot++) {
+            if (oldOffsets[slot] >= 0) {
+                newSlot[slot] = insertSlot(oldHashes[slot], oldOffsets[slot], oldTypes[slot]);
+            }
+        }
+        size = live;
+        for (Cached cached : cache.values()) {
+            cached.slot = newSlot[cached.slot];
+        }
+    }
+}
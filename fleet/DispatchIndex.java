@@ -0,0 +1,200 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+import vehicles.concrete.Truck;
+import vehicles.interfaces.CargoCarrier;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.PassengerCarrier;
+import vehicles.interfaces.VehicleListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+Indexes behind FleetManager.findDispatchCandidates, kept per vehicle type:
+journey time per km (fixed for a vehicle, and every estimateJourneyTime is
+linear in the distance, so it orders vehicles by ETA for any trip), range on
+the current fuel, free cargo capacity and free seats.
+
+A query first drops whole types whose capacities, or whose best range / free
+space in the indexes, can't meet it. For each remaining type it walks the ETA
+order and the "at least this much" tail of each constraint index in lockstep:
+either the ETA walk finds the type's best matches, or one constraint tail runs
+out first and has then listed every vehicle that could match. Either way the
+work is bounded by the cheaper of the two. Matches go through a bounded max-heap
+of size limit.
+ */
+class DispatchIndex {
+    private static class TypeIndexes {
+        final VehicleIndex<Double> hoursPerKm = new VehicleIndex<>(Comparator.naturalOrder());
+        final VehicleIndex<Double> range = new VehicleIndex<>(Comparator.naturalOrder());
+        final VehicleIndex<Double> freeCargo = new VehicleIndex<>(Comparator.naturalOrder());
+        final VehicleIndex<Integer> freeSeats = new VehicleIndex<>(Comparator.naturalOrder());
+    }
+
+    // Orders by journey time, then ID so ties come out the same way every time
+    private static final Comparator<Vehicle> FASTEST_FIRST =
+            Comparator.comparingDouble(DispatchIndex::hoursPerKm).thenComparing(Vehicle::getId);
+
+    private final Map<VehicleType, TypeIndexes> byType = new EnumMap<>(VehicleType.class);
+
+    DispatchIndex(Collection<Vehicle> vehicles) {
+        for (VehicleType type : VehicleType.values()) {
+            byType.put(type, new TypeIndexes());
+        }
+        for (Vehicle v : vehicles) {
+            add(v);
+        }
+    }
+
+    void add(Vehicle v) {
+        TypeIndexes indexes = byType.get(v.getType());
+        indexes.hoursPerKm.put(v, hoursPerKm(v));
+        indexes.range.put(v, range(v));
+        if (v instanceof CargoCarrier) {
+            indexes.freeCargo.put(v, freeCargo((CargoCarrier) v));
+        }
+        if (v instanceof PassengerCarrier) {
+            indexes.freeSeats.put(v, freeSeats((PassengerCarrier) v));
+        }
+    }
+
+    void remove(Vehicle v) {
+        TypeIndexes indexes = byType.get(v.getType());
+        indexes.hoursPerKm.remove(v);
+        indexes.range.remove(v);
+        indexes.freeCargo.remove(v);
+        indexes.freeSeats.remove(v);
+    }
+
+    void update(Vehicle v, VehicleListener.Change change) {
+        TypeIndexes indexes = byType.get(v.getType());
+        switch (change) {
+            case FUEL:
+                indexes.range.put(v, range(v));
+                break;
+            case CARGO:
+                // cargo can change a truck's efficiency and so its range
+                indexes.freeCargo.put(v, freeCargo((CargoCarrier) v));
+                indexes.range.put(v, range(v));
+                break;
+            case PASSENGERS:
+                indexes.freeSeats.put(v, freeSeats((PassengerCarrier) v));
+                break;
+            default:
+                break;
+        }
+    }
+
+    List<Vehicle> find(double cargoKg, int passengers, double distanceKm, int limit) {
+        // max-heap on ETA, the root is the worst of the best `limit` so far
+        PriorityQueue<Vehicle> best = new PriorityQueue<>(limit + 1, FASTEST_FIRST.reversed());
+        for (VehicleType type : VehicleType.values()) {
+            if (type.getCargoCapacity() < cargoKg || type.getPassengerCapacity() < passengers) continue;
+            TypeIndexes indexes = byType.get(type);
+            List<Iterator<Vehicle>> tails = new ArrayList<>();
+            if (!addTail(tails, indexes.range, distanceKm)) continue;
+            if (cargoKg > 0 && !addTail(tails, indexes.freeCargo, cargoKg)) continue;
+            if (passengers > 0 && !addTail(tails, indexes.freeSeats, passengers)) continue;
+            searchType(indexes, tails, best, cargoKg, passengers, distanceKm, limit);
+        }
+        List<Vehicle> result = new ArrayList<>(best);
+        result.sort(FASTEST_FIRST);
+        return result;
+    }
+
+    // Adds the iterator over keys >= min, or returns false if no key is that big
+    private static <K extends Comparable<K>> boolean addTail(List<Iterator<Vehicle>> tails, VehicleIndex<K> index, K min) {
+        K largest = index.lastKey();
+        if (largest == null || largest.compareTo(min) < 0) {
+            return false;
+        }
+        tails.add(index.iteratorFrom(min));
+        return true;
+    }
+
+    private static void searchType(TypeIndexes indexes, List<Iterator<Vehicle>> tails, PriorityQueue<Vehicle> best,
+                                   double cargoKg, int passengers, double distanceKm, int limit) {
+        Iterator<Vehicle> fastest = indexes.hoursPerKm.iterator();
+        Set<Vehicle> seen = new HashSet<>();
+        while (true) {
+            if (!fastest.hasNext()) return;
+            Vehicle v = fastest.next();
+            // equal keys come out in insertion order, not by ID, so only a strictly slower one ends the walk
+            if (best.size() == limit && hoursPerKm(v) > hoursPerKm(best.peek())) {
+                return; // everything left of this type is slower than what we have
+            }
+            if (seen.add(v) && matches(v, cargoKg, passengers, distanceKm)) {
+                offer(best, v, limit);
+            }
+            for (Iterator<Vehicle> tail : tails) {
+                if (!tail.hasNext()) {
+                    return; // every vehicle that meets this constraint has been checked
+                }
+                Vehicle candidate = tail.next();
+                if (seen.add(candidate) && matches(candidate, cargoKg, passengers, distanceKm)) {
+                    offer(best, candidate, limit);
+                }
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Vehicle> best, Vehicle v, int limit) {
+        if (best.size() < limit) {
+            best.add(v);
+        } else if (FASTEST_FIRST.compare(v, best.peek()) < 0) {
+            best.poll();
+            best.add(v);
+        }
+    }
+
+    // Exact check: room for the load, and enough fuel for the trip once loaded
+    private static boolean matches(Vehicle v, double cargoKg, int passengers, double distanceKm) {
+        double cargoAfter = 0;
+        if (cargoKg > 0) {
+            if (!(v instanceof CargoCarrier) || freeCargo((CargoCarrier) v) < cargoKg) return false;
+            cargoAfter = ((CargoCarrier) v).getCurrentCargo() + cargoKg;
+        }
+        if (passengers > 0) {
+            if (!(v instanceof PassengerCarrier) || freeSeats((PassengerCarrier) v) < passengers) return false;
+        }
+        if (!(v instanceof FuelConsumable)) {
+            return true;
+        }
+        double efficiency = (v instanceof Truck && cargoKg > 0)
+                ? ((Truck) v).calculateFuelEfficiency(cargoAfter)
+                : v.calculateFuelEfficiency();
+        // same formula as the range index, so its tail never misses a match; sailing ships need no fuel
+        return efficiency <= 0 || ((FuelConsumable) v).getFuelLevel() * efficiency >= distanceKm;
+    }
+
+    private static double hoursPerKm(Vehicle v) {
+        return v.estimateJourneyTime(1.0);
+    }
+
+    // Km the vehicle can go on its current fuel and load
+    private static double range(Vehicle v) {
+        if (!(v instanceof FuelConsumable)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double efficiency = v.calculateFuelEfficiency();
+        return (efficiency <= 0) ? Double.POSITIVE_INFINITY : ((FuelConsumable) v).getFuelLevel() * efficiency;
+    }
+
+    private static double freeCargo(CargoCarrier c) {
+        return c.getCargoCapacity() - c.getCurrentCargo();
+    }
+
+    private static int freeSeats(PassengerCarrier p) {
+        return p.getPassengerCapacity() - p.getCurrentPassengers();
+    }
+}
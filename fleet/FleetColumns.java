@@ -0,0 +1,221 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.CargoCarrier;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.PassengerCarrier;
+
+import java.util.Arrays;
+
+/**
+Column-per-field copy of the fleet (struct of arrays) used for the report totals.
+Row i always describes the vehicle at position i of the FleetManager's fleet list;
+the slot of a removed vehicle is an empty (all zero) row until the list is compacted.
+Running totals are adjusted by the difference every time a row changes, so reading
+them costs nothing. They are compensated sums, so millions of small updates don't
+drift from the exact total; recomputeTotals() rebuilds them from the arrays after
+a load or compaction. Rows are only changed by one thread at a time (see
+FleetManager.setDeferChanges), so the totals are plain fields.
+ */
+class FleetColumns {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Neumaier-compensated running sum: keeps the low-order bits each add loses
+    private static final class Sum {
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+
+    private double[] mileage;
+    private double[] fuel;
+    private double[] efficiency;
+    private double[] cargo;
+    private int[] passengers;
+    private int size;
+
+    private final Sum mileageTotal = new Sum();
+    private final Sum fuelTotal = new Sum();
+    private final Sum cargoTotal = new Sum();
+    private long passengerTotal;
+    // efficiency is only averaged over vehicles that burn fuel (efficiency > 0)
+    private final Sum efficiencyTotal = new Sum();
+    private int fuelVehicleCount;
+
+    FleetColumns() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        mileage = new double[capacity];
+        fuel = new double[capacity];
+        efficiency = new double[capacity];
+        cargo = new double[capacity];
+        passengers = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = mileage.length * 2;
+        mileage = Arrays.copyOf(mileage, capacity);
+        fuel = Arrays.copyOf(fuel, capacity);
+        efficiency = Arrays.copyOf(efficiency, capacity);
+        cargo = Arrays.copyOf(cargo, capacity);
+        passengers = Arrays.copyOf(passengers, capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Appends a row for the vehicle, its row number is the old size
+    void add(Vehicle v) {
+        if (size == mileage.length) {
+            grow();
+        }
+        clearRow(size);
+        refresh(size, v);
+        size++;
+    }
+
+    // Zeroes a row so refresh() sees zero as the old values
+    private void clearRow(int row) {
+        mileage[row] = 0;
+        fuel[row] = 0;
+        efficiency[row] = 0;
+        cargo[row] = 0;
+        passengers[row] = 0;
+    }
+
+    // Empties the row of a removed vehicle, the rows after it keep their numbers
+    void removeAt(int row) {
+        subtractFromTotals(row);
+        clearRow(row);
+    }
+
+    // Copies a row to a lower row number when the fleet list is compacted
+    void moveRow(int from, int to) {
+        mileage[to] = mileage[from];
+        fuel[to] = fuel[from];
+        efficiency[to] = efficiency[from];
+        cargo[to] = cargo[from];
+        passengers[to] = passengers[from];
+    }
+
+    // Drops the rows from newSize on, they were already moved or emptied
+    void truncate(int newSize) {
+        size = newSize;
+        recomputeTotals();
+    }
+
+    void clear() {
+        size = 0;
+        mileageTotal.reset();
+        fuelTotal.reset();
+        cargoTotal.reset();
+        passengerTotal = 0;
+        efficiencyTotal.reset();
+        fuelVehicleCount = 0;
+    }
+
+    private void subtractFromTotals(int row) {
+        mileageTotal.add(-mileage[row]);
+        fuelTotal.add(-fuel[row]);
+        cargoTotal.add(-cargo[row]);
+        passengerTotal -= passengers[row];
+        if (efficiency[row] > 0) {
+            efficiencyTotal.add(-efficiency[row]);
+            fuelVehicleCount--;
+        }
+    }
+
+    // Re-reads the changeable values of the vehicle stored in this row
+    void refresh(int row, Vehicle v) {
+        subtractFromTotals(row);
+        mileage[row] = v.getCurrentMileage();
+        efficiency[row] = v.calculateFuelEfficiency();
+        fuel[row] = (v instanceof FuelConsumable) ? ((FuelConsumable) v).getFuelLevel() : 0.0;
+        cargo[row] = (v instanceof CargoCarrier) ? ((CargoCarrier) v).getCurrentCargo() : 0.0;
+        passengers[row] = (v instanceof PassengerCarrier) ? ((PassengerCarrier) v).getCurrentPassengers() : 0;
+        mileageTotal.add(mileage[row]);
+        fuelTotal.add(fuel[row]);
+        cargoTotal.add(cargo[row]);
+        passengerTotal += passengers[row];
+        if (efficiency[row] > 0) {
+            efficiencyTotal.add(efficiency[row]);
+            fuelVehicleCount++;
+        }
+    }
+
+    void setMileage(int row, double value) {
+        mileageTotal.add(-mileage[row]);
+        mileageTotal.add(value);
+        mileage[row] = value;
+    }
+
+    void setFuel(int row, double value) {
+        fuelTotal.add(-fuel[row]);
+        fuelTotal.add(value);
+        fuel[row] = value;
+    }
+
+    // Rebuilds the running totals from the arrays, dropping whatever rounding is left
+    void recomputeTotals() {
+        mileageTotal.reset();
+        fuelTotal.reset();
+        cargoTotal.reset();
+        passengerTotal = 0;
+        efficiencyTotal.reset();
+        fuelVehicleCount = 0;
+        for (int i = 0; i < size; i++) {
+            mileageTotal.add(mileage[i]);
+            fuelTotal.add(fuel[i]);
+            cargoTotal.add(cargo[i]);
+            passengerTotal += passengers[i];
+            if (efficiency[i] > 0) {
+                efficiencyTotal.add(efficiency[i]);
+                fuelVehicleCount++;
+            }
+        }
+    }
+
+    // --- AGGREGATES ---
+
+    double totalMileage() {
+        return mileageTotal.value();
+    }
+
+    double totalFuel() {
+        return fuelTotal.value();
+    }
+
+    double totalCargo() {
+        return cargoTotal.value();
+    }
+
+    long totalPassengers() {
+        return passengerTotal;
+    }
+
+    // Average over vehicles that use fuel, sailing ships report 0 and are skipped
+    double averageEfficiency() {
+        return (fuelVehicleCount > 0) ? efficiencyTotal.value() / fuelVehicleCount : 0;
+    }
+}
@@ -0,0 +1,151 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+Delta files hold only what changed since the previous snapshot save or load
+(or the previous delta): the full state of each added or changed vehicle, and
+the IDs of removed ones. Written by FleetManager.saveDelta, folded into a
+snapshot by merge().
+
+Layout (little-endian): header of 32 bytes (magic, version, changed count,
+removed count, body length, CRC32 of the body), then each changed vehicle as
+ID + VehicleBinary record, then each removed ID. Strings are a short length + UTF-8.
+ */
+public final class FleetDelta {
+    static final int MAGIC = 0x464C5444; // "FLTD"
+    static final short VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private FleetDelta() {
+    }
+
+    static void write(List<Vehicle> changed, List<String> removed, Path path) throws IOException {
+        List<byte[]> ids = new ArrayList<>(changed.size());
+        List<byte[]> models = new ArrayList<>(changed.size());
+        long body = 0;
+        for (Vehicle v : changed) {
+            byte[] id = VehicleBinary.encode(v.getId());
+            byte[] model = VehicleBinary.encode(v.getModel());
+            ids.add(id);
+            models.add(model);
+            body += 2 + id.length + VehicleBinary.size(v, model);
+        }
+        List<byte[]> removedIds = new ArrayList<>(removed.size());
+        for (String id : removed) {
+            byte[] bytes = VehicleBinary.encode(id);
+            removedIds.add(bytes);
+            body += 2 + bytes.length;
+        }
+        if (HEADER_BYTES + body > Integer.MAX_VALUE) {
+            throw new IOException("Too many changes for one delta file, save a full snapshot instead.");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) (HEADER_BYTES + body)).order(ByteOrder.LITTLE_ENDIAN);
+        out.position(HEADER_BYTES);
+        for (int i = 0; i < changed.size(); i++) {
+            VehicleBinary.putString(out, ids.get(i));
+            VehicleBinary.write(changed.get(i), models.get(i), out);
+        }
+        for (byte[] id : removedIds) {
+            VehicleBinary.putString(out, id);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), HEADER_BYTES, (int) body);
+        out.putInt(0, MAGIC).putShort(4, VERSION).putInt(8, changed.size()).putInt(12, removed.size())
+                .putLong(16, body).putInt(24, (int) crc.getValue());
+        out.rewind();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Applies delta files, oldest first, to a snapshot and writes the result back
+     * over the snapshot. Vehicles keep their place in the fleet order, new ones
+     * go at the end. The delta files are left in place for the caller to delete.
+     */
+    public static void merge(String snapshotFile, String... deltaFiles) throws IOException {
+        Path snapshot = Paths.get(snapshotFile);
+        Map<String, Vehicle> vehicles = new LinkedHashMap<>();
+        for (Vehicle v : FleetSnapshot.read(snapshot)) {
+            vehicles.put(FleetManager.idKey(v.getId()), v);
+        }
+        for (String deltaFile : deltaFiles) {
+            apply(Paths.get(deltaFile), vehicles);
+        }
+        List<Vehicle> merged = new ArrayList<>(vehicles.values());
+        Set<String> models = new LinkedHashSet<>();
+        for (Vehicle v : merged) {
+            models.add(v.getModel());
+        }
+        FleetSnapshot.write(merged, models, snapshot);
+    }
+
+    private static void apply(Path path, Map<String, Vehicle> vehicles) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.limit() < HEADER_BYTES || in.getInt(0) != MAGIC) {
+            throw new IOException("Not a fleet delta file: " + path);
+        }
+        if (in.getShort(4) > VERSION) {
+            throw new IOException("Delta version " + in.getShort(4) + " is newer than supported version " + VERSION + ".");
+        }
+        int changed = in.getInt(8);
+        int removed = in.getInt(12);
+        long body = in.getLong(16);
+        if (body != in.limit() - HEADER_BYTES) {
+            throw new IOException("Delta file " + path + " is truncated or has trailing data.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), HEADER_BYTES, (int) body);
+        if ((int) crc.getValue() != in.getInt(24)) {
+            throw new IOException("Delta file " + path + " checksum does not match, the file is corrupt.");
+        }
+
+        int at = HEADER_BYTES;
+        for (int i = 0; i < changed; i++) {
+            String id = VehicleBinary.getString(in, at);
+            at += VehicleBinary.stringBytes(in, at);
+            Vehicle v;
+            try {
+                v = VehicleBinary.read(in, at, id);
+            } catch (Exception e) {
+                throw new IOException("Delta record for " + id + " is invalid: " + e.getMessage(), e);
+            }
+            at += VehicleBinary.size(v, VehicleBinary.encode(v.getModel()));
+            // replace() keeps the vehicle's place, put() adds new ones at the end
+            String key = FleetManager.idKey(id);
+            if (vehicles.replace(key, v) == null) {
+                vehicles.put(key, v);
+            }
+        }
+        for (int i = 0; i < removed; i++) {
+            vehicles.remove(FleetManager.idKey(VehicleBinary.getString(in, at)));
+            at += VehicleBinary.stringBytes(in, at);
+        }
+    }
+}
@@ -0,0 +1,652 @@
+package fleet;
+
+import events.Events;
+import exceptions.InvalidOperationException;
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.CargoCarrier;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.PassengerCarrier;
+import vehicles.interfaces.VehicleListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+Write-ahead journal for a FleetManager, so changes survive between snapshots.
+
+Every change the fleet reports (see FleetListener) is appended as a small binary
+entry holding the vehicle's new value, not the operation, so replaying an entry
+twice or on top of a newer snapshot is harmless. Recording threads queue entries
+into a shared batch without taking a lock (see Batch); a background thread takes
+each batch in turn, writes it and fsyncs it as one group, so callers never wait
+for the disk unless they call sync().
+
+The journal is split into numbered segment files (<journal>.1, <journal>.2, ...).
+When the current segment grows past the compaction limit, the writer starts a new
+segment between two batches and a background thread writes a new snapshot, then
+deletes the older segments. The change that crossed the limit only asks for this.
+Opening a journal loads the snapshot and replays whatever segments are left.
+
+Entry layout (little-endian): int payload length, int CRC32 of the payload,
+then the payload: one op byte, the vehicle ID (short length + UTF-8) and the new values.
+A torn entry at the end of a segment (crash mid-write) fails its CRC and is ignored.
+ */
+public class FleetJournal implements FleetListener, AutoCloseable {
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte MILEAGE = 3;
+    private static final byte FUEL = 4;
+    private static final byte CARGO = 5;
+    private static final byte PASSENGERS = 6;
+    private static final byte MAINTENANCE = 7;
+    private static final byte CLEAR = 8;
+
+    private static final int ENTRY_HEADER_BYTES = 8;
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final int INITIAL_ENTRY_BYTES = 256;
+
+    /**
+     * Entries waiting for the writer, in the order their space was reserved. A recording
+     * thread reserves room with getAndAdd on `reserved`, copies its entry in and adds its
+     * length to `filled`. The first reservation that doesn't fit seals the batch: `end` is
+     * set to where it started and the next batch is linked on. The writer seals a batch the
+     * same way, by reserving more than it holds, when it wants to write it out.
+     */
+    private static final class Batch {
+        final long number;
+        final ByteBuffer bytes;
+        final AtomicInteger reserved = new AtomicInteger();
+        final AtomicInteger filled = new AtomicInteger();
+        final AtomicReference<Batch> next = new AtomicReference<>();
+        // bytes in use once sealed, -1 while the batch still takes entries
+        volatile int end = -1;
+
+        Batch(long number, int capacity) {
+            this.number = number;
+            this.bytes = newBuffer(capacity);
+        }
+    }
+
+    // Each recording thread builds its entry here before copying it into a batch
+    private static final class Scratch {
+        ByteBuffer entry = newBuffer(INITIAL_ENTRY_BYTES);
+        final CRC32 crc = new CRC32();
+    }
+
+    private final FleetManager fleet;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final long compactAfterBytes;
+    private final long commitIntervalMillis;
+    private final long replayedEntries;
+
+    private final AtomicReference<Batch> tail = new AtomicReference<>(new Batch(1, BATCH_BYTES));
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private final AtomicLong segmentBytes = new AtomicLong();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // set with compacting, the writer starts the new segment and clears it
+    private volatile boolean rotateRequested;
+    // Number of the last batch that is on disk, guarded by this
+    private long durableBatch;
+    private volatile boolean closed;
+    private volatile boolean writerParked;
+    private volatile IOException failure;
+
+    // The open segment; only touched while holding ioLock
+    private final Object ioLock = new Object();
+    private FileChannel channel;
+    private int segment;
+
+    private final Thread writer;
+    private final ExecutorService compactor;
+
+    private FleetJournal(FleetManager fleet, Path snapshotPath, Path journalPath, long compactAfterBytes,
+                         long commitIntervalMillis, int segment, long replayedEntries) throws IOException {
+        this.fleet = fleet;
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+        this.compactAfterBytes = compactAfterBytes;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.replayedEntries = replayedEntries;
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        this.writer = new Thread(this::writeLoop, "fleet-journal-writer");
+        this.writer.setDaemon(true);
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "fleet-journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Restores the fleet from the snapshot plus any journal segments, then starts
+     * journaling every change. If neither exists yet, the current fleet is saved
+     * as the first snapshot. Segments are compacted once they pass compactAfterBytes;
+     * commitIntervalMillis is how long the writer waits to gather a group before an fsync.
+     */
+    public static FleetJournal open(FleetManager fleet, String snapshotFile, String journalFile,
+                                    long compactAfterBytes, long commitIntervalMillis) throws IOException {
+        if (compactAfterBytes < 1 || commitIntervalMillis < 0) {
+            throw new IllegalArgumentException("Compaction size must be positive and the commit interval not negative.");
+        }
+        if (fleet.getFleetListener() != null) {
+            throw new IllegalStateException("The fleet already has a listener attached.");
+        }
+        Path snapshot = Paths.get(snapshotFile);
+        Path journal = Paths.get(journalFile);
+        List<Integer> segments = existingSegments(journal);
+
+        if (Files.exists(snapshot)) {
+            fleet.loadSnapshot(snapshotFile);
+        } else if (!segments.isEmpty()) {
+            fleet.clear();
+        } else {
+            fleet.saveSnapshot(snapshotFile);
+        }
+        long replayed = 0;
+        for (int s : segments) {
+            replayed += replay(fleet, segmentPath(journal, s));
+        }
+
+        int next = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        FleetJournal result = new FleetJournal(fleet, snapshot, journal, compactAfterBytes,
+                commitIntervalMillis, next, replayed);
+        fleet.setFleetListener(result);
+        result.writer.start();
+        return result;
+    }
+
+    public long getReplayedEntries() {
+        return replayedEntries;
+    }
+
+    // --- RECORDING (FleetListener) ---
+    // Called on whatever thread changed the fleet, several at once under ConcurrentFleetManager.
+    // Nothing here takes a lock: the entry is built in the thread's scratch buffer and copied
+    // into the current batch, see append().
+
+    @Override
+    public void vehicleAdded(Vehicle v) {
+        ByteBuffer entry = begin(ADD, v.getId(), VehicleBinary.size(v));
+        VehicleBinary.write(v, entry);
+        end(entry);
+    }
+
+    @Override
+    public void vehicleRemoved(Vehicle v) {
+        end(begin(REMOVE, v.getId(), 0));
+    }
+
+    @Override
+    public void fleetCleared() {
+        end(begin(CLEAR, "", 0));
+    }
+
+    @Override
+    public void vehicleChanged(Vehicle v, VehicleListener.Change change) {
+        ByteBuffer entry;
+        switch (change) {
+            case MILEAGE:
+                entry = begin(MILEAGE, v.getId(), 9);
+                entry.putDouble(v.getCurrentMileage());
+                break;
+            case FUEL:
+                entry = begin(FUEL, v.getId(), 9);
+                entry.putDouble(((FuelConsumable) v).getFuelLevel());
+                break;
+            case CARGO:
+                entry = begin(CARGO, v.getId(), 9);
+                entry.putDouble(((CargoCarrier) v).getCurrentCargo());
+                break;
+            case PASSENGERS:
+                entry = begin(PASSENGERS, v.getId(), 9);
+                entry.putInt(((PassengerCarrier) v).getCurrentPassengers());
+                break;
+            default:
+                entry = begin(MAINTENANCE, v.getId(), 9);
+                VehicleBinary.putMaintenance(v, entry);
+                break;
+        }
+        end(entry);
+    }
+
+    /**
+     * Clears this thread's scratch buffer, skips the entry header and writes the op and ID.
+     * valueBytes is the most the caller will add after the ID.
+     */
+    private ByteBuffer begin(byte op, String id, int valueBytes) {
+        Scratch s = scratch.get();
+        int needed = ENTRY_HEADER_BYTES + 1 + VehicleBinary.stringSize(id) + valueBytes;
+        if (s.entry.capacity() < needed) {
+            s.entry = newBuffer(Math.max(needed, s.entry.capacity() * 2));
+        }
+        ByteBuffer entry = s.entry;
+        entry.clear();
+        entry.position(ENTRY_HEADER_BYTES);
+        entry.put(op);
+        VehicleBinary.putString(entry, id);
+        return entry;
+    }
+
+    // Fills in the header of the entry in the scratch buffer and queues it
+    private void end(ByteBuffer entry) {
+        if (closed) {
+            // nothing is written after close
+            return;
+        }
+        int length = entry.position() - ENTRY_HEADER_BYTES;
+        CRC32 crc = scratch.get().crc;
+        crc.reset();
+        crc.update(entry.duplicate().position(ENTRY_HEADER_BYTES).limit(entry.position()));
+        entry.putInt(0, length);
+        entry.putInt(4, (int) crc.getValue());
+        entry.flip();
+        append(entry);
+        if (segmentBytes.addAndGet(entry.limit()) >= compactAfterBytes && compacting.compareAndSet(false, true)) {
+            requestRotation();
+        }
+    }
+
+    // Copies a finished entry into the current batch, moving on to a new batch when it is full
+    private void append(ByteBuffer entry) {
+        int length = entry.remaining();
+        while (true) {
+            Batch batch = tail.get();
+            int at = batch.reserved.getAndAdd(length);
+            if (at + length <= batch.bytes.capacity()) {
+                batch.bytes.put(at, entry, 0, length);
+                batch.filled.addAndGet(length);
+                if (writerParked) {
+                    LockSupport.unpark(writer);
+                }
+                return;
+            }
+            sealed(batch, at, length);
+        }
+    }
+
+    /**
+     * A reservation of `length` bytes at `at` didn't fit. The first one that didn't
+     * records where the batch ends; every caller then makes sure the next batch is
+     * linked on and is the tail, so whoever got here first does the work.
+     */
+    private void sealed(Batch batch, int at, int length) {
+        if (at <= batch.bytes.capacity()) {
+            batch.end = at;
+        }
+        Batch next = batch.next.get();
+        if (next == null) {
+            Batch fresh = new Batch(batch.number + 1, Math.max(BATCH_BYTES, length));
+            next = batch.next.compareAndSet(null, fresh) ? fresh : batch.next.get();
+        }
+        tail.compareAndSet(batch, next);
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // --- GROUP COMMIT ---
+
+    // Blocks until every entry recorded so far is on disk
+    public void sync() throws IOException {
+        Batch last = tail.get();
+        // an untouched tail holds nothing of ours, everything before it does
+        long target = (last.reserved.get() == 0) ? last.number - 1 : last.number;
+        LockSupport.unpark(writer);
+        synchronized (this) {
+            while (durableBatch < target && failure == null && writer.isAlive()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal.", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Writes batches in order: waits for the oldest to get entries, seals it, waits for the
+    // entries already reserved in it to be copied in, then writes and fsyncs it as one group.
+    // A requested segment switch is made after the batch in hand is written.
+    private void writeLoop() {
+        Batch batch = tail.get();
+        try {
+            while (true) {
+                while (batch.reserved.get() == 0 && !closed && !rotateRequested) {
+                    writerParked = true;
+                    if (batch.reserved.get() == 0 && !closed && !rotateRequested) {
+                        LockSupport.park(this);
+                    }
+                    writerParked = false;
+                }
+                if (batch.reserved.get() > 0) {
+                    batch = writeBatch(batch);
+                } else if (!rotateRequested) {
+                    return; // closed and everything written
+                }
+                if (rotateRequested) {
+                    rotateRequested = false;
+                    startCompaction();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Seals the batch, writes and fsyncs it, returns the batch after it
+    private Batch writeBatch(Batch batch) throws InterruptedException {
+        if (commitIntervalMillis > 0 && batch.end < 0) {
+            // let more entries join this group before paying for the fsync
+            Thread.sleep(commitIntervalMillis);
+        }
+        int capacity = batch.bytes.capacity();
+        sealed(batch, batch.reserved.getAndAdd(capacity + 1), capacity + 1);
+        while (batch.end < 0 || batch.filled.get() < batch.end) {
+            Thread.onSpinWait();
+        }
+        IOException error = null;
+        try {
+            ByteBuffer bytes = batch.bytes.duplicate().position(0).limit(batch.end);
+            synchronized (ioLock) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            if (error != null && failure == null) {
+                failure = error;
+                Events.warning("Error: Could not write fleet journal: " + error.getMessage());
+            }
+            durableBatch = batch.number;
+            notifyAll();
+        }
+        return batch.next.get();
+    }
+
+    // --- COMPACTION ---
+
+    // Folds the journal into a new snapshot now and waits for it to finish.
+    // Vehicles must not be added or removed on other threads meanwhile.
+    public void compact() throws IOException {
+        synchronized (this) {
+            while (!compacting.compareAndSet(false, true)) {
+                if (closed) {
+                    throw new IOException("The journal is closed.");
+                }
+                awaitCompaction();
+            }
+            if (closed) {
+                compacting.set(false);
+                throw new IOException("The journal is closed.");
+            }
+        }
+        requestRotation();
+        synchronized (this) {
+            while (compacting.get()) {
+                awaitCompaction();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void awaitCompaction() throws IOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compacting the journal.", e);
+        }
+    }
+
+    // Called by whoever set compacting, the writer does the rest between two batches
+    private void requestRotation() {
+        rotateRequested = true;
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Runs on the writer thread. Starts a new segment, so everything written from here on
+     * lands there, and lets the compactor write a snapshot of the fleet. The compactor reads
+     * the fleet after the switch, so the snapshot holds every change in the old segments;
+     * changes it also picks up from the new segment are harmless, since replaying an entry
+     * only sets a value again.
+     */
+    private void startCompaction() {
+        int folded;
+        try {
+            synchronized (ioLock) {
+                FileChannel next = openSegment(segment + 1);
+                channel.force(false);
+                channel.close();
+                channel = next;
+                folded = segment++;
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+            Events.warning("Error: Could not start a new journal segment: " + e.getMessage());
+            compactionDone();
+            return;
+        }
+        segmentBytes.set(0);
+        compactor.execute(() -> compactInto(folded));
+    }
+
+    private void compactInto(int folded) {
+        try {
+            List<Vehicle> vehicles = currentVehicles();
+            Set<String> models = new LinkedHashSet<>();
+            for (Vehicle v : vehicles) {
+                models.add(v.getModel());
+            }
+            FleetSnapshot.write(vehicles, models, snapshotPath);
+            for (int s : existingSegments(journalPath)) {
+                if (s <= folded) {
+                    Files.deleteIfExists(segmentPath(journalPath, s));
+                }
+            }
+        } catch (IOException e) {
+            Events.warning("Warning: Journal compaction failed, the old segments are kept: " + e.getMessage());
+        } finally {
+            compactionDone();
+        }
+    }
+
+    // The fleet list as it is now. A copy that ran into a vehicle being added or
+    // removed on another thread is simply taken again.
+    private List<Vehicle> currentVehicles() {
+        while (true) {
+            try {
+                return fleet.vehicles();
+            } catch (ConcurrentModificationException e) {
+                // retry
+            }
+        }
+    }
+
+    private synchronized void compactionDone() {
+        compacting.set(false);
+        notifyAll();
+    }
+
+    // Writes out everything recorded, waits for a running compaction and stops journaling
+    @Override
+    public void close() throws IOException {
+        if (fleet.getFleetListener() == this) {
+            fleet.setFleetListener(null);
+        }
+        synchronized (this) {
+            while (compacting.get()) {
+                awaitCompaction();
+            }
+            closed = true;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactor.shutdown();
+        synchronized (ioLock) {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // --- SEGMENT FILES ---
+
+    private FileChannel openSegment(int number) throws IOException {
+        return FileChannel.open(segmentPath(journalPath, number), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path journal, int number) {
+        return journal.resolveSibling(journal.getFileName() + "." + number);
+    }
+
+    // Numbers of the segment files that exist, oldest first
+    private static List<Integer> existingSegments(Path journal) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        Path dir = journal.toAbsolutePath().getParent();
+        String prefix = journal.getFileName() + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, journal.getFileName() + ".*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                try {
+                    numbers.add(Integer.parseInt(suffix));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    // --- REPLAY ---
+
+    // Applies every intact entry of one segment to the fleet, returns how many there were
+    private static long replay(FleetManager fleet, Path segment) throws IOException {
+        long size = Files.size(segment);
+        if (size == 0) return 0;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal segment " + segment + " is larger than 2 GB.");
+        }
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        long entries = 0;
+        int at = 0;
+        while (at + ENTRY_HEADER_BYTES <= size) {
+            int length = in.getInt(at);
+            int checksum = in.getInt(at + 4);
+            int payload = at + ENTRY_HEADER_BYTES;
+            if (length <= 0 || payload + (long) length > size) {
+                break;
+            }
+            crc.reset();
+            crc.update(in.duplicate().position(payload).limit(payload + length));
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            try {
+                apply(fleet, in, payload);
+            } catch (Exception e) {
+                throw new IOException("Journal entry at byte " + at + " of " + segment + " could not be applied: "
+                        + e.getMessage(), e);
+            }
+            entries++;
+            at = payload + length;
+        }
+        if (at < size) {
+            Events.warning("Warning: Ignoring an incomplete entry at the end of " + segment);
+        }
+        return entries;
+    }
+
+    private static void apply(FleetManager fleet, ByteBuffer in, int at) throws Exception {
+        byte op = in.get(at);
+        String id = VehicleBinary.getString(in, at + 1);
+        at += 1 + VehicleBinary.stringBytes(in, at + 1);
+        if (op == CLEAR) {
+            fleet.clear();
+            return;
+        }
+        if (op == REMOVE) {
+            fleet.withdrawVehicle(id);
+            return;
+        }
+        if (op == ADD) {
+            Vehicle v = VehicleBinary.read(in, at, id);
+            // replaying on a snapshot that already has the vehicle replaces it
+            fleet.withdrawVehicle(id);
+            fleet.restoreVehicle(v);
+            return;
+        }
+        Vehicle v = fleet.getVehicle(id);
+        if (v == null) {
+            // removed later on, or covered by a newer snapshot
+            return;
+        }
+        switch (op) {
+            case MILEAGE:
+                v.setMileage(in.getDouble(at));
+                break;
+            case FUEL:
+                ((FuelConsumable) v).setFuelLevel(in.getDouble(at));
+                break;
+            case CARGO:
+                ((CargoCarrier) v).setCurrentCargo(in.getDouble(at));
+                break;
+            case PASSENGERS:
+                ((PassengerCarrier) v).setCurrentPassengers(in.getInt(at));
+                break;
+            case MAINTENANCE:
+                ((Maintainable) v).setMaintenanceNeeded(in.get(at) != 0);
+                ((Maintainable) v).setMileageAtLastService(in.getDouble(at + 1));
+                break;
+            default:
+                throw new InvalidOperationException("Unknown journal entry type " + op + ".");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.VehicleListener;
+
+/**
+Notified of every change to a FleetManager's contents: vehicles added or removed,
+the fleet being emptied (before a load), and changes to any vehicle in it.
+vehicleChanged can be called on several threads at once (ConcurrentFleetManager,
+the parallel bulk operations), but never for the same vehicle at once, so the
+changes of any one vehicle arrive in the order they happened.
+ */
+public interface FleetListener {
+    void vehicleAdded(Vehicle vehicle);
+
+    void vehicleRemoved(Vehicle vehicle);
+
+    void vehicleChanged(Vehicle vehicle, VehicleListener.Change change);
+
+    void fleetCleared();
+}
@@ -1,331 +1,1047 @@
 package fleet;
 
+import events.Events;
+import events.FleetEvent;
 import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
 import vehicles.abstracts.Vehicle;
-import vehicles.concrete.*;
+import vehicles.abstracts.VehicleType;
 import vehicles.interfaces.CargoCarrier;
 import vehicles.interfaces.FuelConsumable;
 import vehicles.interfaces.Maintainable;
 import vehicles.interfaces.PassengerCarrier;
+import vehicles.interfaces.VehicleListener;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator; 
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet; 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set; 
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
 use of ArrayList for dynamic storage.
-use of HashSet for finding distinct models.
 use of Comparators with collection.sort().
-use of Collections.max and min.
+use of HashMap as an id index so lookups don't scan the list.
+use of EnumMap to keep the vehicles of each type in their own bucket.
+use of TreeMap indexes (VehicleIndex) for km left until service, speed, mileage, fuel and model,
+so range queries and sorted listings never reorder the fleet list.
+use of primitive arrays (FleetColumns) with running totals for the report summary.
+use of a HashMap of model -> vehicle count so distinct models are known without a pass over the fleet.
  */
 public class FleetManager {
     // 1. Use of Collections (ArrayList)
     // This ArrayList is the primary collection for dynamic vehicle storage.
     private List<Vehicle> fleet;
+    // Maps the lower-cased ID to the vehicle
+    private Map<String, Vehicle> vehiclesById;
+    // Position of each vehicle in the fleet list (Vehicle has no equals, so this is by identity)
+    private Map<Vehicle, Integer> positionOf;
+    // Removing a vehicle leaves null in its slot so the vehicles behind it keep their place
+    // (and position). The nulls are squeezed out before the list is next read in order,
+    // or once they make up half of it.
+    private int removedSlots;
+    // Vehicles grouped by type, LinkedHashSet keeps insertion order and removes in O(1)
+    private Map<VehicleType, Set<Vehicle>> vehiclesByType;
+    // Maintainable vehicles ordered by km left until service, overdue and flagged ones first
+    private VehicleIndex<Double> maintenanceIndex;
+    private VehicleIndex<Double> speedIndex;
+    private VehicleIndex<Double> mileageIndex;
+    // Only FuelConsumable vehicles are in the fuel index
+    private VehicleIndex<Double> fuelIndex;
+    private VehicleIndex<String> modelIndex;
+    // Numeric columns in the same order as the fleet list, for the report totals
+    private FleetColumns columns;
+    // How many vehicles use each model name, a model disappears when its count drops to 0
+    private Map<String, Integer> modelCounts;
+    // Capacity, range and ETA indexes for dispatch queries, built by the first one
+    private DispatchIndex dispatchIndex;
+    // Free seats of every PassengerCarrier, built by the first booking
+    private SeatIndex seatIndex;
+
+    // Order the report lists vehicles in, chosen by the sort menu
+    private enum ListingOrder { INSERTION, EFFICIENCY, MAX_SPEED, MODEL_NAME }
+    private ListingOrder listingOrder = ListingOrder.INSERTION;
+    // Vehicles report their changes here so the indexes stay up to date
+    private final VehicleListener changeListener = this::onVehicleChanged;
+    // While vehicles change on several threads at once (ConcurrentFleetManager's single-vehicle
+    // operations, the parallel bulk operations), a change only records its kind in
+    // pendingChanges (a bit per VehicleListener.Change) and the indexes, columns and dirty set
+    // catch up in applyPendingChanges. The map locks per bin, so those threads share no lock.
+    private volatile boolean deferChanges;
+    private final ConcurrentHashMap<Vehicle, Integer> pendingChanges = new ConcurrentHashMap<>();
+    private static final VehicleListener.Change[] CHANGES = VehicleListener.Change.values();
+    // Told about every change to the fleet (used by FleetJournal), may be null
+    private FleetListener fleetListener;
+    // Vehicles added or changed, and IDs removed, since the last snapshot save or load (or the
+    // last delta), so a delta save only writes those. CSV saves and loads don't reset them.
+    private final Set<Vehicle> dirtyVehicles = new LinkedHashSet<>();
+    private final Map<String, String> removedSinceSave = new HashMap<>();
 
     public FleetManager() {
         this.fleet = new ArrayList<>(); // i have used array list as told in the assignment - task 1
+        this.vehiclesById = new HashMap<>();
+        this.positionOf = new HashMap<>();
+        this.vehiclesByType = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            vehiclesByType.put(type, new LinkedHashSet<>());
+        }
+        this.maintenanceIndex = new VehicleIndex<>(Comparator.naturalOrder());
+        this.speedIndex = new VehicleIndex<>(Comparator.naturalOrder());
+        this.mileageIndex = new VehicleIndex<>(Comparator.naturalOrder());
+        this.fuelIndex = new VehicleIndex<>(Comparator.naturalOrder());
+        this.modelIndex = new VehicleIndex<>(String.CASE_INSENSITIVE_ORDER);
+        this.columns = new FleetColumns();
+        this.modelCounts = new HashMap<>();
+    }
+
+    // IDs are case-insensitive, so the index is keyed by the lower-cased ID
+    static String idKey(String id) {
+        return id.toLowerCase(Locale.ROOT);
     }
 
     // Checks for duplicate ID before adding
     public void addVehicle(Vehicle v) throws InvalidOperationException {
-        for (Vehicle vehicle : fleet) {
-            if (vehicle.getId().equalsIgnoreCase(v.getId())) {
-                throw new InvalidOperationException("Vehicle with ID " + v.getId() + " already exists.");
-            }
+        insertVehicle(v);
+        Events.publish(FleetEvent.ADDED, v);
+    }
+
+    // Adds the vehicle to the list and every index, rejecting duplicate IDs
+    private void insertVehicle(Vehicle v) throws InvalidOperationException {
+        String key = idKey(v.getId());
+        if (vehiclesById.containsKey(key)) {
+            throw new InvalidOperationException("Vehicle with ID " + v.getId() + " already exists.");
         }
+        vehiclesById.put(key, v);
+        positionOf.put(v, fleet.size());
         fleet.add(v);
-        System.out.println("Vehicle " + v.getId() + " added to the fleet.");
+        columns.add(v);
+        modelCounts.merge(v.getModel(), 1, Integer::sum);
+        vehiclesByType.get(v.getType()).add(v);
+        if (v instanceof Maintainable) {
+            maintenanceIndex.put(v, maintenanceKey((Maintainable) v));
+        }
+        speedIndex.put(v, v.getMaxSpeed());
+        mileageIndex.put(v, v.getCurrentMileage());
+        if (v instanceof FuelConsumable) {
+            fuelIndex.put(v, ((FuelConsumable) v).getFuelLevel());
+        }
+        modelIndex.put(v, v.getModel());
+        if (dispatchIndex != null) {
+            dispatchIndex.add(v);
+        }
+        if (seatIndex != null) {
+            seatIndex.add(v);
+        }
+        v.setListener(changeListener);
+        dirtyVehicles.add(v);
+        removedSinceSave.remove(key);
+        if (fleetListener != null) {
+            fleetListener.vehicleAdded(v);
+        }
+    }
+
+    // Empties the list and every index. The vehicles count as removed for the next delta,
+    // so one taken after a CSV load still applies to the last snapshot.
+    private void clearFleet() {
+        for (Vehicle v : fleet) {
+            if (v != null) {
+                detach(v);
+                removedSinceSave.put(idKey(v.getId()), v.getId());
+            }
+        }
+        dirtyVehicles.clear();
+        fleet.clear();
+        removedSlots = 0;
+        vehiclesById.clear();
+        positionOf.clear();
+        columns.clear();
+        modelCounts.clear();
+        for (Set<Vehicle> bucket : vehiclesByType.values()) {
+            bucket.clear();
+        }
+        maintenanceIndex.clear();
+        speedIndex.clear();
+        mileageIndex.clear();
+        fuelIndex.clear();
+        modelIndex.clear();
+        dispatchIndex = null;
+        seatIndex = null;
+        if (fleetListener != null) {
+            fleetListener.fleetCleared();
+        }
     }
 
+    // Stops listening to a vehicle that is leaving this fleet
+    private void detach(Vehicle v) {
+        if (v.getListener() == changeListener) {
+            v.setListener(null);
+        }
+    }
+
+    // Called by a vehicle in this fleet whenever its state changes
+    private void onVehicleChanged(Vehicle v, VehicleListener.Change change) {
+        if (deferChanges) {
+            pendingChanges.merge(v, 1 << change.ordinal(), (a, b) -> a | b);
+        } else {
+            updateIndexes(v, change);
+            dirtyVehicles.add(v);
+        }
+        if (fleetListener != null) {
+            fleetListener.vehicleChanged(v, change);
+        }
+    }
+
+    /**
+     * While on, vehicle changes are only queued, so threads changing different
+     * vehicles never wait for each other; turning it off applies the queue.
+     * Used by ConcurrentFleetManager, which turns it off for its exclusive operations.
+     * Must not be switched while vehicles are changing.
+     */
+    void setDeferChanges(boolean on) {
+        if (!on) {
+            applyPendingChanges();
+        }
+        deferChanges = on;
+    }
+
+    // Brings the indexes, columns and dirty set up to date with the queued changes
+    private void applyPendingChanges() {
+        if (pendingChanges.isEmpty()) return;
+        for (Map.Entry<Vehicle, Integer> pending : pendingChanges.entrySet()) {
+            Vehicle v = pending.getKey();
+            if (!positionOf.containsKey(v)) continue; // removed since
+            int changes = pending.getValue();
+            for (VehicleListener.Change change : CHANGES) {
+                if ((changes & (1 << change.ordinal())) != 0) {
+                    updateIndexes(v, change);
+                }
+            }
+            dirtyVehicles.add(v);
+        }
+        pendingChanges.clear();
+    }
+
+    // The fleet now matches the snapshot just saved or loaded
+    private void markClean() {
+        dirtyVehicles.clear();
+        removedSinceSave.clear();
+    }
+
+    // Number of vehicles a delta save would write (changed or added, plus removed)
+    public int getDirtyCount() {
+        return dirtyVehicles.size() + removedSinceSave.size();
+    }
+
+    public void setFleetListener(FleetListener listener) {
+        this.fleetListener = listener;
+    }
+
+    public FleetListener getFleetListener() {
+        return fleetListener;
+    }
+
+    private void updateIndexes(Vehicle v, VehicleListener.Change change) {
+        if (dispatchIndex != null) {
+            dispatchIndex.update(v, change);
+        }
+        if (seatIndex != null && change == VehicleListener.Change.PASSENGERS) {
+            seatIndex.update(v);
+        }
+        switch (change) {
+            case MILEAGE:
+                mileageIndex.put(v, v.getCurrentMileage());
+                columns.setMileage(positionOf.get(v), v.getCurrentMileage());
+                if (v instanceof Maintainable) {
+                    maintenanceIndex.put(v, maintenanceKey((Maintainable) v));
+                }
+                break;
+            case MAINTENANCE:
+                if (v instanceof Maintainable) {
+                    maintenanceIndex.put(v, maintenanceKey((Maintainable) v));
+                }
+                break;
+            case FUEL:
+                if (v instanceof FuelConsumable) {
+                    fuelIndex.put(v, ((FuelConsumable) v).getFuelLevel());
+                    columns.setFuel(positionOf.get(v), ((FuelConsumable) v).getFuelLevel());
+                }
+                break;
+            case CARGO:
+            case PASSENGERS:
+                // cargo can change a truck's efficiency, so the whole row is re-read
+                columns.refresh(positionOf.get(v), v);
+                break;
+        }
+    }
+
+    // Km left until service, vehicles flagged for maintenance sort before everything else
+    private static double maintenanceKey(Maintainable m) {
+        double kmLeft = m.getKmUntilService();
+        if (kmLeft >= 0 && m.needsMaintenance()) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return kmLeft;
+    }
+
+    // The remaining vehicles keep the order they were added in
     public void removeVehicle(String id) throws InvalidOperationException {
-        boolean removed = fleet.removeIf(v -> v.getId().equalsIgnoreCase(id));
-        if (!removed) {
+        Vehicle removed = withdrawVehicle(id);
+        if (removed == null) {
             throw new InvalidOperationException("Vehicle with ID " + id + " not found.");
         }
-        System.out.println("Vehicle " + id + " removed.");
+        Events.publish(FleetEvent.REMOVED, removed);
+    }
+
+    // Takes the vehicle out of the list and every index without publishing an event,
+    // returns null if there is no such vehicle
+    Vehicle withdrawVehicle(String id) {
+        Vehicle removed = (id == null) ? null : vehiclesById.remove(idKey(id));
+        if (removed == null) {
+            return null;
+        }
+        int position = positionOf.remove(removed);
+        fleet.set(position, null);
+        columns.removeAt(position);
+        removedSlots++;
+        if (removedSlots > fleet.size() / 2) {
+            compactFleet();
+        }
+        modelCounts.computeIfPresent(removed.getModel(), (model, count) -> (count == 1) ? null : count - 1);
+        vehiclesByType.get(removed.getType()).remove(removed);
+        maintenanceIndex.remove(removed);
+        speedIndex.remove(removed);
+        mileageIndex.remove(removed);
+        fuelIndex.remove(removed);
+        modelIndex.remove(removed);
+        if (dispatchIndex != null) {
+            dispatchIndex.remove(removed);
+        }
+        if (seatIndex != null) {
+            seatIndex.remove(removed);
+        }
+        detach(removed);
+        dirtyVehicles.remove(removed);
+        removedSinceSave.put(idKey(id), removed.getId());
+        if (fleetListener != null) {
+            fleetListener.vehicleRemoved(removed);
+        }
+        return removed;
+    }
+
+    // Adds a vehicle without publishing an event, used when replaying a journal
+    void restoreVehicle(Vehicle v) throws InvalidOperationException {
+        insertVehicle(v);
+    }
+
+    // Empties the fleet without publishing events, used when replaying a journal
+    void clear() {
+        clearFleet();
+    }
+
+    // A copy of the fleet list; doesn't compact it, so it is safe next to single-vehicle operations
+    List<Vehicle> vehicles() {
+        List<Vehicle> copy = new ArrayList<>(fleet.size() - removedSlots);
+        for (Vehicle v : fleet) {
+            if (v != null) {
+                copy.add(v);
+            }
+        }
+        return copy;
+    }
+
+    int size() {
+        return fleet.size() - removedSlots;
+    }
+
+    // The fleet list in insertion order, without the slots of removed vehicles
+    private List<Vehicle> liveFleet() {
+        if (removedSlots > 0) {
+            compactFleet();
+        }
+        return fleet;
+    }
+
+    // Closes the gaps left by removed vehicles, moving the rest up in order
+    private void compactFleet() {
+        int kept = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            Vehicle v = fleet.get(i);
+            if (v == null) continue;
+            if (i != kept) {
+                fleet.set(kept, v);
+                positionOf.put(v, kept);
+                columns.moveRow(i, kept);
+            }
+            kept++;
+        }
+        fleet.subList(kept, fleet.size()).clear();
+        columns.truncate(kept);
+        removedSlots = 0;
+    }
+
+    // Returns the vehicle with the given ID (case-insensitive), or null if there is none
+    public Vehicle getVehicle(String id) {
+        if (id == null) return null;
+        return vehiclesById.get(idKey(id));
+    }
+
+    // --- FLEET TOTALS (running totals kept by the primitive columns) ---
+
+    public double getTotalMileage() {
+        return columns.totalMileage();
+    }
+
+    public double getTotalFuel() {
+        return columns.totalFuel();
+    }
+
+    // Cargo currently loaded across all cargo carriers, in kg
+    public double getTotalCargo() {
+        return columns.totalCargo();
+    }
+
+    public long getTotalPassengers() {
+        return columns.totalPassengers();
+    }
+
+    // Average km/l over vehicles that burn fuel
+    public double getAverageEfficiency() {
+        return columns.averageEfficiency();
+    }
+
+    // Read from the ends of the speed index, 0 for an empty fleet
+    public double getMinSpeed() {
+        Vehicle slowest = speedIndex.first();
+        return (slowest == null) ? 0 : slowest.getMaxSpeed();
+    }
+
+    public double getMaxSpeed() {
+        Vehicle fastest = speedIndex.last();
+        return (fastest == null) ? 0 : fastest.getMaxSpeed();
     }
 
     // Moves all vehicles, continues even if some fail
     public void startAllJourneys(double distance) {
-        System.out.println("Starting all journeys of " + distance + " km");
-        for (Vehicle v : fleet) {
+        Events.info("Starting all journeys of " + distance + " km");
+        for (Vehicle v : liveFleet()) {
             try {
                 v.move(distance);
             } catch (InvalidOperationException e) {
-                System.out.println("Could not start journey for " + v.getId() + ": " + e.getMessage());
+                if (Events.isEnabled()) {
+                    Events.info("Could not start journey for " + v.getId() + ": " + e.getMessage());
+                }
             }
         }
     }
 
     public void maintainAll() {
-        System.out.println("Performing maintenance on all vehicles needing it");
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable) {
-                Maintainable m = (Maintainable) v;
-                if (m.needsMaintenance()) {
-                    m.performMaintenance();
-                }
-            }
+        Events.info("Performing maintenance on all vehicles needing it");
+        // Work on a copy since each service moves the vehicle inside the index
+        for (Vehicle v : getVehiclesNeedingMaintenance()) {
+            ((Maintainable) v).performMaintenance();
         }
     }
 
     public void refuelAll(double amount) {
-        System.out.println("Refueling all applicable vehicles");
-        for (Vehicle v : fleet) {
+        Events.info("Refueling all applicable vehicles");
+        for (Vehicle v : liveFleet()) {
             if (v instanceof FuelConsumable) {
                 try {
                     ((FuelConsumable) v).refuel(amount);
                 } catch (InvalidOperationException e) {
-                    System.out.println("Could not refuel " + v.getId() + ": " + e.getMessage());
+                    if (Events.isEnabled()) {
+                        Events.info("Could not refuel " + v.getId() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    // --- PARALLEL FLEET-WIDE OPERATIONS ---
+    // Same as the methods above but spread over `parallelism` fork-join workers.
+    // Failures are collected in the returned BulkResult instead of being printed, and the
+    // per-vehicle events (moved, refueled, maintained) are not published; the result is the report.
+
+    // Uses tryMove, so vehicles short on fuel cost a status code rather than an exception
+    public BulkResult startAllJourneys(double distance, int parallelism) {
+        return runParallel(liveFleet(), parallelism, v -> moveFailure(v.tryMove(distance)));
+    }
+
+    public BulkResult refuelAll(double amount, int parallelism) {
+        return runParallel(vehiclesWith(FuelConsumable.class), parallelism, v -> {
+            ((FuelConsumable) v).refuel(amount);
+            return null;
+        });
+    }
+
+    public BulkResult maintainAll(int parallelism) {
+        return runParallel(getVehiclesNeedingMaintenance(), parallelism, v -> {
+            ((Maintainable) v).performMaintenance();
+            return null;
+        });
+    }
+
+    // Simulates `hours` of operation: vehicles make back-to-back trips of tripKm, stop to take
+    // on refuelLiters when a trip needs more fuel than they have, and go for service when due.
+    // The fleet is split over `parallelism` workers. It runs on copies of the vehicles, so the
+    // fleet itself is left as it was and only the result tells what the period would bring.
+    public SimulationResult simulate(double hours, double tripKm, double refuelLiters, int parallelism) {
+        if (!(hours >= 0) || Double.isInfinite(hours) || !(tripKm > 0) || !(refuelLiters > 0)) {
+            throw new IllegalArgumentException("Hours must be finite and not negative, trip length and refuel amount must be positive.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        List<Vehicle> live = liveFleet();
+        List<Vehicle> copies = new ArrayList<>(live.size());
+        for (Vehicle v : live) {
+            copies.add(VehicleBinary.copy(v));
+        }
+        return new FleetSimulation(tripKm, refuelLiters).run(copies, hours, parallelism);
+    }
+
+    // Checks a day's routes (leg lengths in km per vehicle ID) against the fuel on board and
+    // says where each vehicle must stop, taking on multiples of refuelLiters, so that no leg
+    // fails in consumeFuel. Nothing is changed, the plan only reads the fleet.
+    public FuelPlan planFuel(Map<String, double[]> routes, double refuelLiters) throws InvalidOperationException {
+        if (!(refuelLiters > 0) || Double.isInfinite(refuelLiters)) {
+            throw new IllegalArgumentException("Refuel amount must be positive.");
+        }
+        List<Vehicle> vehicles = new ArrayList<>(routes.size());
+        List<double[]> legs = new ArrayList<>(routes.size());
+        for (Map.Entry<String, double[]> route : routes.entrySet()) {
+            Vehicle v = getVehicle(route.getKey());
+            if (v == null) {
+                throw new InvalidOperationException("Vehicle with ID " + route.getKey() + " not found.");
+            }
+            for (double km : route.getValue()) {
+                if (!(km > 0) || Double.isInfinite(km)) {
+                    throw new IllegalArgumentException("Leg of vehicle " + v.getId() + " has an invalid length: " + km);
+                }
+            }
+            vehicles.add(v);
+            legs.add(route.getValue());
+        }
+        return new FuelPlanner(vehicles, legs).plan(refuelLiters);
+    }
+
+    // Failure message for a tryMove result code, null when the move worked
+    private static String moveFailure(int status) {
+        switch (status) {
+            case Vehicle.MOVE_INVALID_DISTANCE: return "Distance must be positive.";
+            case Vehicle.MOVE_NO_FUEL: return "Not enough fuel for the journey.";
+            default: return null;
+        }
+    }
+
+    private BulkResult runParallel(List<Vehicle> vehicles, int parallelism, ParallelFleetTask.VehicleAction action) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        boolean wasDeferring = deferChanges;
+        setDeferChanges(true);
+        try {
+            return FleetPools.pool(parallelism).invoke(new ParallelFleetTask(vehicles, 0, vehicles.size(), action));
+        } finally {
+            setDeferChanges(wasDeferring);
+        }
+    }
+
+    // --- CARGO ASSIGNMENT ---
+
+    public CargoAssignment assignCargo(double[] weights) throws OverloadException {
+        return assignCargo(weights, PackingStrategy.BEST_FIT_DECREASING);
+    }
+
+    // Spreads the shipments (weights in kg) over the free cargo space of the fleet in one pass.
+    // Shipments no vehicle has room for are reported, not thrown. The loads are applied all or
+    // nothing: if a vehicle refuses its load, the ones already loaded get their old cargo back.
+    public CargoAssignment assignCargo(double[] weights, PackingStrategy strategy) throws OverloadException {
+        CargoPacker packer = new CargoPacker(vehiclesWith(CargoCarrier.class));
+        CargoAssignment assignment = packer.pack(weights, strategy);
+        int applied = 0;
+        try {
+            for (; applied < packer.binCount(); applied++) {
+                if (packer.plannedLoad(applied) > 0) {
+                    ((CargoCarrier) packer.vehicle(applied)).loadCargo(packer.plannedLoad(applied));
+                }
+            }
+        } catch (OverloadException | RuntimeException e) {
+            for (int b = 0; b < applied; b++) {
+                if (packer.plannedLoad(b) > 0) {
+                    restoreCargo((CargoCarrier) packer.vehicle(b), packer.cargoBefore(b));
+                }
+            }
+            throw e;
+        }
+        return assignment;
+    }
+
+    private static void restoreCargo(CargoCarrier c, double cargo) {
+        try {
+            c.setCurrentCargo(cargo);
+        } catch (OverloadException e) {
+            // it held this much a moment ago, so this can't happen
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // --- PASSENGER BOOKING ---
+
+    // Seats a group on as few vehicles as it can: the vehicle with the fewest free seats that
+    // still fits the rest of the group, otherwise the emptiest vehicle filled up. The group is
+    // seated whole or not at all. The first booking builds the free-seat index.
+    public SeatAllocation bookGroup(int passengers) throws OverloadException {
+        if (passengers < 1) {
+            throw new IllegalArgumentException("A group needs at least one passenger.");
+        }
+        if (seatIndex == null) {
+            seatIndex = new SeatIndex(liveFleet());
+        }
+        Map<String, Integer> seats = new LinkedHashMap<>();
+        if (seatIndex.getTotalFreeSeats() < passengers) {
+            return new SeatAllocation(passengers, seats);
+        }
+        List<Vehicle> boarded = new ArrayList<>();
+        int remaining = passengers;
+        try {
+            while (remaining > 0) {
+                Vehicle v = seatIndex.tightestFit(remaining);
+                int count = remaining;
+                if (v == null) {
+                    v = seatIndex.mostFree();
+                    count = seatIndex.freeSeats(v);
                 }
+                // the listener moves the vehicle to its new bucket in the seat index
+                ((PassengerCarrier) v).boardPassengers(count);
+                boarded.add(v);
+                seats.put(v.getId(), count);
+                remaining -= count;
+            }
+        } catch (OverloadException | RuntimeException e) {
+            for (Vehicle v : boarded) {
+                unboard((PassengerCarrier) v, seats.get(v.getId()));
             }
+            throw e;
+        }
+        return new SeatAllocation(passengers, seats);
+    }
+
+    // Books each group in turn, groups that don't fit come back not seated
+    public List<SeatAllocation> bookGroups(int[] groups) throws OverloadException {
+        List<SeatAllocation> result = new ArrayList<>(groups.length);
+        for (int group : groups) {
+            result.add(bookGroup(group));
         }
+        return result;
     }
 
+    private static void unboard(PassengerCarrier p, int count) {
+        try {
+            p.disembarkPassengers(count);
+        } catch (InvalidOperationException e) {
+            // they boarded a moment ago, so this can't happen
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Vehicles implementing the given interface, in fleet order
+    private List<Vehicle> vehiclesWith(Class<?> capability) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Vehicle v : liveFleet()) {
+            if (capability.isInstance(v)) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    // Vehicles due for maintenance now, most overdue first
     public List<Vehicle> getVehiclesNeedingMaintenance() {
-        return fleet.stream()
-                .filter(v -> v instanceof Maintainable && ((Maintainable) v).needsMaintenance())
-                .collect(Collectors.toList());
+        return maintenanceIndex.below(0.0, false);
+    }
+
+    // Vehicles due now or within the next km kilometres, soonest first
+    public List<Vehicle> getVehiclesDueWithin(double km) {
+        return maintenanceIndex.below(km, true);
     }
 
     // Returns all vehicles matching the given type name
     public List<Vehicle> searchByType(String type) {
-        List<Vehicle> foundVehicles = new ArrayList<>();
-        for (Vehicle v : fleet) {
-            if (v.getClass().getSimpleName().equalsIgnoreCase(type)) {
-                foundVehicles.add(v);
-            }
+        VehicleType vehicleType = VehicleType.fromName(type);
+        if (vehicleType == null) {
+            return new ArrayList<>();
         }
-        return foundVehicles;
+        return searchByType(vehicleType);
+    }
+
+    // Returns a snapshot of the vehicles of the given type
+    public List<Vehicle> searchByType(VehicleType type) {
+        return new ArrayList<>(vehiclesByType.get(type));
+    }
+
+    // Read-only live view of the vehicles of the given type
+    public Set<Vehicle> getVehiclesOfType(VehicleType type) {
+        return Collections.unmodifiableSet(vehiclesByType.get(type));
+    }
+
+    public int countByType(VehicleType type) {
+        return vehiclesByType.get(type).size();
     }
 
-    // Sorts by fuel efficiency, highest first
+    // Lists the report by fuel efficiency, highest first (the fleet list itself is not reordered)
     public void sortFleetByEfficiency() {
-        Collections.sort(fleet);
-        System.out.println("Fleet sorted by fuel efficiency (highest first).");
+        listingOrder = ListingOrder.EFFICIENCY;
+        Events.info("Fleet sorted by fuel efficiency (highest first).");
     }
 
-    // Sorts by speed, fastest first
+    // Lists the report by speed, fastest first
     public void sortFleetByMaxSpeed() {
-        fleet.sort(Comparator.comparingDouble(Vehicle::getMaxSpeed).reversed());
-        System.out.println("Fleet sorted by max speed (fastest first).");
+        listingOrder = ListingOrder.MAX_SPEED;
+        Events.info("Fleet sorted by max speed (fastest first).");
     }
 
-    // Sorts alphabetically by model name
+    // Lists the report alphabetically by model name
     public void sortFleetByModelName() {
-        fleet.sort(Comparator.comparing(Vehicle::getModel, String.CASE_INSENSITIVE_ORDER));
-        System.out.println("Fleet sorted by model name (A-Z).");
+        listingOrder = ListingOrder.MODEL_NAME;
+        Events.info("Fleet sorted by model name (A-Z).");
     }
 
-    // Gets unique model names using HashSet
-    private Set<String> getDistinctModels() {
-        Set<String> models = new HashSet<>();
-        for (Vehicle v : fleet) {
-            models.add(v.getModel());
+    // Vehicles in the order picked by the last sort, read from the indexes where possible
+    List<Vehicle> vehiclesInListingOrder() {
+        switch (listingOrder) {
+            case EFFICIENCY:
+                // efficiency can change with cargo, so this one is sorted on a copy
+                List<Vehicle> byEfficiency = new ArrayList<>(liveFleet());
+                Collections.sort(byEfficiency);
+                return byEfficiency;
+            case MAX_SPEED:
+                return speedIndex.descending();
+            case MODEL_NAME:
+                return modelIndex.ascending();
+            default:
+                return liveFleet();
         }
-        return models;
     }
 
-    // Finds vehicle with highest max speed
-    private Vehicle getFastestVehicle() {
-        if (fleet.isEmpty()) return null;
-        return Collections.max(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed));
+    // --- SORTED VIEWS AND RANGE QUERIES ---
+
+    public List<Vehicle> getVehiclesSortedBySpeed() {
+        return speedIndex.descending();
     }
 
-    // Finds vehicle with lowest max speed
-    private Vehicle getSlowestVehicle() {
-        if (fleet.isEmpty()) return null;
-        return Collections.min(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed));
+    public List<Vehicle> getVehiclesSortedByMileage() {
+        return mileageIndex.ascending();
     }
 
-    // Generates comprehensive fleet status report
-    public String generateReport() {
-        if (fleet.isEmpty()) {
-            return "The fleet is currently empty.";
-        }
+    public List<Vehicle> getVehiclesSortedByFuelLevel() {
+        return fuelIndex.ascending();
+    }
 
-        StringBuilder report = new StringBuilder();
-        report.append("\nFleet Status Report\n");
-        report.append("Total Vehicles: ").append(fleet.size()).append("\n\n");
+    public List<Vehicle> getVehiclesSortedByModel() {
+        return modelIndex.ascending();
+    }
 
-        Map<String, Integer> typeCounts = new HashMap<>();
-        double totalMileage = 0;
-        double totalEfficiency = 0;
-        int fuelVehicleCount = 0;
+    // Vehicles with min <= max speed <= max, slowest first
+    public List<Vehicle> getVehiclesBySpeedRange(double min, double max) {
+        return speedIndex.range(min, true, max, true);
+    }
 
-        for (Vehicle v : fleet) {
-            String typeName = v.getClass().getSimpleName();
-            typeCounts.put(typeName, typeCounts.getOrDefault(typeName, 0) + 1);
-            
-            totalMileage += v.getCurrentMileage();
-            
-            double efficiency = v.calculateFuelEfficiency();
-            if (efficiency > 0) {
-                totalEfficiency += efficiency;
-                fuelVehicleCount++;
-            }
-            
-            String maintenanceStatus;
-            if (v instanceof Maintainable && ((Maintainable) v).needsMaintenance()) {
-                maintenanceStatus = "Yes";
-            } else {
-                maintenanceStatus = "No";
-            }
-            
-            report.append("  - ID: " + v.getId());
-            report.append(", Type: " + typeName);
-            report.append(", Model: " + v.getModel());
-            report.append(", Mileage: " + v.getCurrentMileage() + " km");
-            report.append(", Needs Maintenance: " + maintenanceStatus + "\n");
-        }
+    // Vehicles with min <= mileage <= max, lowest first
+    public List<Vehicle> getVehiclesByMileageRange(double min, double max) {
+        return mileageIndex.range(min, true, max, true);
+    }
 
-        double averageEfficiency = 0;
-        if (fuelVehicleCount > 0) {
-            averageEfficiency = totalEfficiency / fuelVehicleCount;
-        }
+    // Vehicles with mileage strictly above the given value, lowest first
+    public List<Vehicle> getVehiclesWithMileageAbove(double mileage) {
+        return mileageIndex.above(mileage, false);
+    }
 
-        Set<String> distinctModels = getDistinctModels();
-        Vehicle fastest = getFastestVehicle();
-        Vehicle slowest = getSlowestVehicle();
+    // Fuel-consuming vehicles with min <= fuel level <= max, emptiest first
+    public List<Vehicle> getVehiclesByFuelRange(double min, double max) {
+        return fuelIndex.range(min, true, max, true);
+    }
 
-        report.append("\nSummary\n");
-        report.append("Total Fleet Mileage: " + totalMileage + " km\n");
-        report.append("Average Fuel Efficiency: " + averageEfficiency + " km/l\n");
-        
-        report.append("Distinct Vehicle Models: " + distinctModels.size() + " (" + distinctModels + ")\n");
-        if (fastest != null) {
-            report.append("Fastest Vehicle: " + fastest.getId() + " (" + fastest.getModel() + ") at " + fastest.getMaxSpeed() + " km/h\n");
-        }
-        if (slowest != null) {
-            report.append("Slowest Vehicle: " + slowest.getId() + " (" + slowest.getModel() + ") at " + slowest.getMaxSpeed() + " km/h\n");
+    // Fuel-consuming vehicles with less than the given fuel level, emptiest first
+    public List<Vehicle> getVehiclesWithFuelBelow(double fuelLevel) {
+        return fuelIndex.below(fuelLevel, false);
+    }
+
+    // Vehicles of exactly this model (case-insensitive)
+    public List<Vehicle> getVehiclesByModel(String model) {
+        return modelIndex.range(model, true, model, true);
+    }
+
+    // Vehicles whose model falls between from and to alphabetically (case-insensitive)
+    public List<Vehicle> getVehiclesByModelRange(String from, String to) {
+        return modelIndex.range(from, true, to, true);
+    }
+
+    // Up to limit vehicles that can take this load over this distance on their current
+    // fuel, soonest arrival first. The first call builds the dispatch indexes.
+    public List<Vehicle> findDispatchCandidates(double cargoKg, int passengers, double distanceKm, int limit) {
+        if (!(distanceKm > 0) || cargoKg < 0 || passengers < 0 || limit < 1) {
+            throw new IllegalArgumentException("Distance and limit must be positive, cargo and passengers not negative.");
         }
-        
-        report.append("Vehicle Counts by Type:\n");
-        for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
-            report.append("  - ").append(entry.getKey()).append("s: ").append(entry.getValue()).append("\n");
+        if (dispatchIndex == null) {
+            dispatchIndex = new DispatchIndex(liveFleet());
         }
+        return dispatchIndex.find(cargoKg, passengers, distanceKm, limit);
+    }
+
+    // Unique model names, read from the model counts
+    Set<String> getDistinctModels() {
+        return Collections.unmodifiableSet(modelCounts.keySet());
+    }
+
+    // Finds vehicle with highest max speed
+    Vehicle getFastestVehicle() {
+        return speedIndex.last();
+    }
+
+    // Finds vehicle with lowest max speed
+    Vehicle getSlowestVehicle() {
+        return speedIndex.first();
+    }
 
+    // Generates comprehensive fleet status report
+    public String generateReport() {
+        StringWriter report = new StringWriter();
+        try {
+            writeReport(report, ReportFormat.TEXT);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
         return report.toString();
     }
 
+    // Streams the report in the given format without building it in memory
+    public void writeReport(Writer out, ReportFormat format) throws IOException {
+        new ReportWriter(this, out).write(format);
+    }
+
+    // Same as above for byte streams, written as UTF-8; the stream is flushed but left open
+    public void writeReport(OutputStream out, ReportFormat format) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeReport(writer, format);
+        writer.flush();
+    }
+
     // --- PERSISTENCE METHODS ---
 
     public void saveToFile(String filename) throws IOException {
+        saveToFile(filename, CsvCompression.NONE);
+    }
+
+    // Saves as CSV, optionally compressed; loadFromFile reads every form back
+    public void saveToFile(String filename, CsvCompression compression) throws IOException {
         // Using try-with-resources as required
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            for (Vehicle v : fleet) {
-                String csvLine = vehicleToCsv(v);
-                writer.write(csvLine);
-                writer.newLine();
+        try (OutputStream file = new FileOutputStream(filename)) {
+            switch (compression) {
+                case GZIP:
+                    CompressedCsv.writeGzip(liveFleet(), file);
+                    break;
+                case BLOCKS:
+                    CompressedCsv.writeBlocks(liveFleet(), file, Runtime.getRuntime().availableProcessors());
+                    break;
+                default:
+                    VehicleCsvWriter csv = new VehicleCsvWriter(new OutputStreamWriter(file));
+                    for (Vehicle v : liveFleet()) {
+                        csv.write(v);
+                    }
+                    csv.flush();
             }
-            System.out.println("Fleet saved successfully to " + filename);
+            Events.info("Fleet saved successfully to " + filename);
         } catch (IOException e) {
-            System.err.println("Error: Could not save fleet to file: " + e.getMessage());
+            Events.warning("Error: Could not save fleet to file: " + e.getMessage());
             throw e;
         }
     }
 
-    // Loads fleet from CSV, skips invalid lines
+    // Loads fleet from CSV (plain or compressed), skips invalid lines
     public void loadFromFile(String filename) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            fleet.clear();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-                try {
-                    Vehicle v = createVehicleFromCsv(line);
-                    fleet.add(v);
-                } catch (Exception e) {
-                    System.err.println("Warning: Skipping malformed line in CSV: " + line);
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+            CsvCompression compression = CompressedCsv.detect(in);
+            clearFleet();
+            if (compression == CsvCompression.BLOCKS) {
+                CompressedCsv.readBlocks(in, Runtime.getRuntime().availableProcessors(), this::loadRow);
+            } else {
+                BufferedReader reader = CompressedCsv.reader(in, compression);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    loadRow(line, CompressedCsv.parse(line));
                 }
             }
-            System.out.println("Fleet loaded successfully from " + filename);
+            columns.recomputeTotals();
+            Events.info("Fleet loaded successfully from " + filename);
         } catch (FileNotFoundException e) {
-            System.err.println("Error: The file '" + filename + "' was not found.");
+            Events.warning("Error: The file '" + filename + "' was not found.");
         } catch (IOException e) {
-            System.err.println("Error: Could not read fleet from file: " + e.getMessage());
+            Events.warning("Error: Could not read fleet from file: " + e.getMessage());
             throw e;
         }
     }
 
+    // Adds one loaded row; v is null when the line couldn't be parsed
+    private void loadRow(String line, Vehicle v) {
+        if (v != null) {
+            try {
+                insertVehicle(v);
+                return;
+            } catch (InvalidOperationException e) {
+                // duplicate ID, reported like a malformed line
+            }
+        }
+        if (Events.isEnabled()) {
+            Events.warning("Warning: Skipping malformed line in CSV: " + line);
+        }
+    }
+
     /**
-     * Converts a Vehicle object into a CSV string.
-     * Order:
-     * 0-Type, 1-ID, 2-Model, 3-MaxSpeed, 4-Mileage, 5-Efficiency,
-     * 6-FuelLevel, 7-MaintenanceNeeded, 8-MileageAtLastService,
-     * 9+ (Vehicle-specific data)
+     * Replaces the fleet with the contents of a CSV file written by saveToFile,
+     * parsing it on `parallelism` workers. Rows that can't be parsed, or whose ID
+     * is already taken, are passed to `rejects` (which may be null) with their line
+     * number instead of being printed. Vehicles are added in file order.
      */
-    private String vehicleToCsv(Vehicle v) {
-        // Common data for all vehicles
-        String commonData = String.join(",",
-            v.getClass().getSimpleName(),
-            v.getId(),
-            v.getModel(),
-            String.valueOf(v.getMaxSpeed()),
-            String.valueOf(v.getCurrentMileage()),
-            String.valueOf(v.calculateFuelEfficiency()), 
-            (v instanceof FuelConsumable) ? String.valueOf(((FuelConsumable) v).getFuelLevel()) : "0.0",
-            (v instanceof Maintainable) ? String.valueOf(getMaintenanceFlag((Maintainable) v)) : "false",
-            (v instanceof Maintainable) ? String.valueOf(getMaintenanceMileage((Maintainable) v)) : "0.0"
-        );
-
-        // Add type-specific data
-        String specificData = "";
-        if (v instanceof Car) {
-            specificData = "," + ((Car) v).getCurrentPassengers();
-        } else if (v instanceof Truck) {
-            specificData = "," + ((Truck) v).getCurrentCargo();
-        } else if (v instanceof Bus) {
-            specificData = "," + ((Bus) v).getCurrentPassengers() + "," + ((Bus) v).getCurrentCargo();
-        } else if (v instanceof Airplane) {
-            specificData = "," + ((Airplane) v).getMaxAltitude() + "," + ((Airplane) v).getCurrentPassengers() + "," + ((Airplane) v).getCurrentCargo();
-        } else if (v instanceof CargoShip) {
-            specificData = "," + ((CargoShip) v).hasSail() + "," + ((CargoShip) v).getCurrentCargo();
+    public LoadResult bulkLoadFromFile(String filename, int parallelism, RejectedRowSink rejects) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
         }
-        
-        return commonData + specificData;
+        long started = System.nanoTime();
+        VehicleCsvWriter duplicates = new VehicleCsvWriter(null);
+        List<CsvBulkLoader.ChunkResult> chunks = new CsvBulkLoader(Paths.get(filename), parallelism).parse();
+
+        clearFleet();
+        long loaded = 0;
+        long rejected = 0;
+        long firstLine = 1; // line number of the first line in the current chunk
+        for (CsvBulkLoader.ChunkResult chunk : chunks) {
+            int nextReject = 0;
+            for (int i = 0; i < chunk.vehicles.size(); i++) {
+                int line = chunk.vehicleLines[i];
+                // parse rejects from earlier lines go first, so the sink sees rows in file order
+                while (nextReject < chunk.rejects.size() && chunk.rejects.get(nextReject).localLine < line) {
+                    reject(rejects, firstLine, chunk.rejects.get(nextReject++));
+                    rejected++;
+                }
+                Vehicle v = chunk.vehicles.get(i);
+                try {
+                    insertVehicle(v);
+                    loaded++;
+                } catch (InvalidOperationException e) {
+                    if (rejects != null) {
+                        rejects.rejected(firstLine + line, duplicates.format(v), e.getMessage());
+                    }
+                    rejected++;
+                }
+            }
+            while (nextReject < chunk.rejects.size()) {
+                reject(rejects, firstLine, chunk.rejects.get(nextReject++));
+                rejected++;
+            }
+            firstLine += chunk.lineCount;
+        }
+
+        columns.recomputeTotals();
+        LoadResult result = new LoadResult(loaded, rejected, System.nanoTime() - started);
+        Events.info("Fleet loaded from " + filename + ": " + result);
+        return result;
     }
-    
-    // Helper methods to read maintenance fields for CSV saving
-    private double getMaintenanceMileage(Maintainable m) {
+
+    // Writes the fleet as a binary snapshot (see FleetSnapshot), much faster to reload than CSV
+    public void saveSnapshot(String filename) throws IOException {
         try {
-            java.lang.reflect.Field field = m.getClass().getDeclaredField("mileageAtLastService");
-            field.setAccessible(true);
-            return field.getDouble(m);
-        } catch (Exception e) {
-            return 0.0;
+            FleetSnapshot.write(liveFleet(), modelCounts.keySet(), Paths.get(filename));
+            markClean();
+            Events.info("Fleet snapshot saved to " + filename);
+        } catch (IOException e) {
+            Events.warning("Error: Could not save fleet snapshot: " + e.getMessage());
+            throw e;
         }
     }
-    
-    private boolean getMaintenanceFlag(Maintainable m) {
+
+    // Replaces the fleet with the contents of a snapshot; a damaged snapshot leaves the fleet unchanged
+    public void loadSnapshot(String filename) throws IOException {
+        List<Vehicle> vehicles;
+        try {
+            vehicles = FleetSnapshot.read(Paths.get(filename));
+        } catch (IOException e) {
+            Events.warning("Error: Could not load fleet snapshot: " + e.getMessage());
+            throw e;
+        }
+        clearFleet();
+        for (Vehicle v : vehicles) {
+            try {
+                insertVehicle(v);
+            } catch (InvalidOperationException e) {
+                if (Events.isEnabled()) {
+                    Events.warning("Warning: Skipping duplicate vehicle in snapshot: " + v.getId());
+                }
+            }
+        }
+        columns.recomputeTotals();
+        markClean();
+        Events.info("Fleet snapshot loaded from " + filename);
+    }
+
+    /**
+     * Writes only the vehicles added or changed, and the IDs removed, since the
+     * last snapshot save or load (see FleetDelta). Returns how many records were written.
+     * FleetDelta.merge folds delta files into the snapshot they were taken after.
+     */
+    public int saveDelta(String filename) throws IOException {
+        List<Vehicle> changed;
+        List<String> removed;
+        changed = new ArrayList<>(dirtyVehicles);
+        removed = new ArrayList<>(removedSinceSave.values());
+        dirtyVehicles.clear();
+        removedSinceSave.clear();
         try {
-            java.lang.reflect.Field field = m.getClass().getDeclaredField("maintenanceNeeded");
-            field.setAccessible(true);
-            return field.getBoolean(m);
-        } catch (Exception e) {
-            return false;
+            FleetDelta.write(changed, removed, Paths.get(filename));
+        } catch (IOException e) {
+            // keep the changes for the next attempt
+            for (Vehicle v : changed) {
+                if (positionOf.containsKey(v)) dirtyVehicles.add(v);
+            }
+            for (String id : removed) {
+                if (!vehiclesById.containsKey(idKey(id))) removedSinceSave.put(idKey(id), id);
+            }
+            Events.warning("Error: Could not save fleet delta: " + e.getMessage());
+            throw e;
+        }
+        Events.info("Fleet delta saved to " + filename + " (" + changed.size() + " changed, " + removed.size() + " removed)");
+        return changed.size() + removed.size();
+    }
+
+    private static void reject(RejectedRowSink rejects, long firstLine, CsvBulkLoader.Reject row) {
+        if (rejects != null) {
+            rejects.rejected(firstLine + row.localLine, row.line, row.reason);
         }
     }
 
     /**
      * Creates a Vehicle object by parsing a line of CSV text.
+     * Also used by DiskBackedFleet, which streams rows straight to disk.
      */
-    private Vehicle createVehicleFromCsv(String line) throws Exception {
+    static Vehicle createVehicleFromCsv(String line) throws Exception {
         String[] data = line.split(",");
         
         // Read common base data (indices up to 8 are the same for all types)
-        String type = data[0].trim();
+        VehicleType type = VehicleType.fromName(data[0]);
         String id = data[1].trim();
         String model = data[2].trim();
         double maxSpeed = Double.parseDouble(data[3].trim());
@@ -335,49 +1051,25 @@ public class FleetManager {
         boolean maintenanceNeeded = Boolean.parseBoolean(data[7].trim());
         double mileageAtLastService = Double.parseDouble(data[8].trim());
 
-        Vehicle v = null;
-        int dataIndex = 9; // Start index for type-specific data
-
-        // Create the specific vehicle object and read its type-specific data
-        switch (type) {
-            case "Car":
-                v = new Car(id, model, maxSpeed);
-                ((Car) v).setCurrentPassengers(Integer.parseInt(data[dataIndex++].trim()));
-                break;
-            case "Truck":
-                v = new Truck(id, model, maxSpeed);
-                ((Truck) v).setCurrentCargo(Double.parseDouble(data[dataIndex++].trim()));
-                break;
-            case "Bus":
-                v = new Bus(id, model, maxSpeed);
-                ((Bus) v).setCurrentPassengers(Integer.parseInt(data[dataIndex++].trim()));
-                ((Bus) v).setCurrentCargo(Double.parseDouble(data[dataIndex++].trim()));
-                break;
-            case "Airplane":
-                double maxAltitude = Double.parseDouble(data[dataIndex++].trim());
-                v = new Airplane(id, model, maxSpeed, maxAltitude);
-                ((Airplane) v).setCurrentPassengers(Integer.parseInt(data[dataIndex++].trim()));
-                ((Airplane) v).setCurrentCargo(Double.parseDouble(data[dataIndex++].trim()));
-                break;
-            case "CargoShip":
-                boolean hasSail = Boolean.parseBoolean(data[dataIndex++].trim());
-                v = new CargoShip(id, model, maxSpeed, hasSail);
-                ((CargoShip) v).setCurrentCargo(Double.parseDouble(data[dataIndex++].trim()));
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown vehicle type in CSV: " + type);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown vehicle type in CSV: " + data[0].trim());
         }
+        // The type's codec reads the type-specific columns, which start at index 9
+        Vehicle v = VehicleCodecs.forType(type).read(new VehicleCsvCodec.SplitFields(data), 9, id, model, maxSpeed);
+        restoreCommonState(v, mileage, fuelLevel, maintenanceNeeded, mileageAtLastService);
+        return v;
+    }
 
-        if (v != null) {
-            v.setMileage(mileage);
-            if (v instanceof FuelConsumable) {
-                ((FuelConsumable) v).setFuelLevel(fuelLevel);
-            }
-            if (v instanceof Maintainable) {
-                ((Maintainable) v).setMaintenanceNeeded(maintenanceNeeded);
-                ((Maintainable) v).setMileageAtLastService(mileageAtLastService);
-            }
+    // Sets the columns every vehicle type shares, also used by CsvBulkLoader
+    static void restoreCommonState(Vehicle v, double mileage, double fuelLevel,
+                                   boolean maintenanceNeeded, double mileageAtLastService) {
+        v.setMileage(mileage);
+        if (v instanceof FuelConsumable) {
+            ((FuelConsumable) v).setFuelLevel(fuelLevel);
+        }
+        if (v instanceof Maintainable) {
+            ((Maintainable) v).setMaintenanceNeeded(maintenanceNeeded);
+            ((Maintainable) v).setMileageAtLastService(mileageAtLastService);
         }
-        return v;
     }
 }
\ No newline at end of file
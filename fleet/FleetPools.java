@@ -0,0 +1,35 @@
+package fleet;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+Fork-join pools shared by the parallel fleet operations, compressed CSV,
+the bulk loader and the simulation, one per parallelism asked for. A pool
+is started the first time its size is needed and then kept, so repeated
+calls don't pay for new threads. Fork-join workers are daemon threads and
+retire when idle, so a kept pool neither holds the JVM open nor threads
+it doesn't use.
+ */
+final class FleetPools {
+    private static final ConcurrentMap<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    private FleetPools() {
+    }
+
+    static ForkJoinPool pool(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    // Stops work a caller gave up on, the pool itself stays up for the next caller
+    static void cancelAll(Iterable<? extends Future<?>> futures) {
+        for (Future<?> f : futures) {
+            f.cancel(true);
+        }
+    }
+}
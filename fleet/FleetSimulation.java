@@ -0,0 +1,184 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+Discrete-event simulation behind FleetManager.simulate. Every vehicle runs the
+same loop: when it is free it goes for service if needsMaintenance says so,
+otherwise it sets off on a trip (tryMove books the fuel and mileage at the
+start, estimateJourneyTime says when it arrives), and when it is out of fuel
+it stops to refuel instead. A vehicle whose trip wouldn't take a finite,
+positive time is parked for the whole run without moving.
+
+Vehicles never interact, so the fleet is split into one shard per worker and
+each shard runs its own clock. A vehicle always has exactly one event pending,
+so a shard's queue is a binary heap over two fixed arrays (time, vehicle slot)
+with the vehicle's next step kept in a third; handling an event rewrites the
+top of the heap and sifts it down. Nothing is allocated once the shards are set up.
+ */
+class FleetSimulation {
+    static final double REFUEL_HOURS = 0.5;
+    static final double SERVICE_HOURS = 8.0;
+
+    // What a vehicle is doing until its pending event
+    private static final byte ARRIVING = 0;   // also the state every vehicle starts in
+    private static final byte REFUELING = 1;
+    private static final byte IN_SERVICE = 2;
+
+    private final double tripKm;
+    private final double refuelLiters;
+
+    FleetSimulation(double tripKm, double refuelLiters) {
+        this.tripKm = tripKm;
+        this.refuelLiters = refuelLiters;
+    }
+
+    SimulationResult run(List<Vehicle> vehicles, double hours, int shardCount) {
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            shards.add(new Shard(vehicles, s, shardCount));
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = FleetPools.pool(shardCount);
+        List<Future<?>> running = new ArrayList<>(shardCount);
+        try {
+            for (Shard shard : shards) {
+                running.add(pool.submit(() -> shard.run(hours)));
+            }
+            for (Future<?> f : running) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException("Simulation failed.", e.getCause());
+        } finally {
+            FleetPools.cancelAll(running);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long events = 0, trips = 0, refuels = 0, services = 0;
+        double km = 0;
+        for (Shard shard : shards) {
+            events += shard.events;
+            trips += shard.trips;
+            refuels += shard.refuels;
+            services += shard.services;
+            km += shard.km;
+        }
+        return new SimulationResult(hours, events, trips, refuels, services, km, elapsed);
+    }
+
+    private final class Shard {
+        private final Vehicle[] vehicles;
+        private final byte[] state;
+        // heap ordered by (time, slot), slot i of the heap holds the event of vehicles[slots[i]]
+        private final double[] times;
+        private final int[] slots;
+        private long events, trips, refuels, services;
+        private double km;
+
+        Shard(List<Vehicle> all, int shard, int shardCount) {
+            int n = (all.size() - shard + shardCount - 1) / shardCount;
+            vehicles = new Vehicle[n];
+            for (int i = 0; i < n; i++) {
+                vehicles[i] = all.get(shard + i * shardCount);
+            }
+            state = new byte[n];
+            times = new double[n];
+            slots = new int[n];
+            // everyone free at time 0, already in heap order
+            for (int i = 0; i < n; i++) {
+                slots[i] = i;
+            }
+        }
+
+        void run(double hours) {
+            while (slots.length > 0 && times[0] <= hours) {
+                int slot = slots[0];
+                double now = times[0];
+                events++;
+                finish(slot);
+                times[0] = now + start(slot);
+                siftDown();
+            }
+        }
+
+        // Completes the refuel or service that just ended
+        private void finish(int slot) {
+            Vehicle v = vehicles[slot];
+            if (state[slot] == REFUELING) {
+                FuelConsumable f = (FuelConsumable) v;
+                f.setFuelLevel(f.getFuelLevel() + refuelLiters);
+                refuels++;
+            } else if (state[slot] == IN_SERVICE) {
+                Maintainable m = (Maintainable) v;
+                m.setMaintenanceNeeded(false);
+                m.setMileageAtLastService(v.getCurrentMileage());
+                services++;
+            }
+        }
+
+        // Starts whatever the vehicle does next, returns how many hours it takes
+        private double start(int slot) {
+            Vehicle v = vehicles[slot];
+            if (v instanceof Maintainable && ((Maintainable) v).needsMaintenance()) {
+                state[slot] = IN_SERVICE;
+                return SERVICE_HOURS;
+            }
+            double duration = v.estimateJourneyTime(tripKm);
+            if (!(duration > 0) || Double.isInfinite(duration)) {
+                // a zero, negative or NaN max speed never arrives, or would stall the clock
+                state[slot] = ARRIVING;
+                return Double.POSITIVE_INFINITY;
+            }
+            if (v.tryMove(tripKm) == Vehicle.MOVE_OK) {
+                trips++;
+                km += tripKm;
+                state[slot] = ARRIVING;
+                return duration;
+            }
+            if (v instanceof FuelConsumable) {
+                state[slot] = REFUELING;
+                return REFUEL_HOURS;
+            }
+            // can't move and can't refuel, parked for the rest of the run
+            state[slot] = ARRIVING;
+            return Double.POSITIVE_INFINITY;
+        }
+
+        private void siftDown() {
+            int n = slots.length;
+            double time = times[0];
+            int slot = slots[0];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) break;
+                if (child + 1 < n && earlier(times[child + 1], slots[child + 1], times[child], slots[child])) {
+                    child++;
+                }
+                if (!earlier(times[child], slots[child], time, slot)) break;
+                times[i] = times[child];
+                slots[i] = slots[child];
+                i = child;
+            }
+            times[i] = time;
+            slots[i] = slot;
+        }
+
+        private boolean earlier(double t1, int s1, double t2, int s2) {
+            return t1 < t2 || (t1 == t2 && s1 < s2);
+        }
+    }
+}
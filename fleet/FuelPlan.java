@@ -0,0 +1,92 @@
+package fleet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+Outcome of FleetManager.planFuel: where each vehicle has to stop for fuel so
+that no leg of its route fails in consumeFuel, and which vehicles would have
+failed without those stops.
+ */
+public class FuelPlan {
+    public static class RefuelPoint {
+        private final String vehicleId;
+        private final int leg;
+        private final double fuelBefore;
+        private final double liters;
+
+        RefuelPoint(String vehicleId, int leg, double fuelBefore, double liters) {
+            this.vehicleId = vehicleId;
+            this.leg = leg;
+            this.fuelBefore = fuelBefore;
+            this.liters = liters;
+        }
+
+        public String getVehicleId() {
+            return vehicleId;
+        }
+
+        // Position of the leg in the vehicle's route, the stop is made just before it
+        public int getLeg() {
+            return leg;
+        }
+
+        // Fuel in the tank on arriving at the stop
+        public double getFuelBefore() {
+            return fuelBefore;
+        }
+
+        public double getLiters() {
+            return liters;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: refuel %.1f L before leg %d (%.1f L left)", vehicleId, liters, leg, fuelBefore);
+        }
+    }
+
+    private final List<RefuelPoint> refuelPoints;
+    private final List<String> vehiclesAtRisk;
+    private final long legs;
+    private final double fuelBurned;
+
+    FuelPlan(List<RefuelPoint> refuelPoints, List<String> vehiclesAtRisk, long legs, double fuelBurned) {
+        this.refuelPoints = refuelPoints;
+        this.vehiclesAtRisk = vehiclesAtRisk;
+        this.legs = legs;
+        this.fuelBurned = fuelBurned;
+    }
+
+    // Stops in route order, vehicles in the order the plan listed them
+    public List<RefuelPoint> getRefuelPoints() {
+        return Collections.unmodifiableList(refuelPoints);
+    }
+
+    // Vehicles that would run out of fuel on their current tank
+    public List<String> getVehiclesAtRisk() {
+        return Collections.unmodifiableList(vehiclesAtRisk);
+    }
+
+    public long getLegs() {
+        return legs;
+    }
+
+    public double getFuelBurned() {
+        return fuelBurned;
+    }
+
+    public double getRefuelLiters() {
+        double total = 0;
+        for (RefuelPoint p : refuelPoints) {
+            total += p.liters;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d leg(s) burn %.1f L; %d vehicle(s) at risk, %d refuel stop(s) for %.1f L.",
+                legs, fuelBurned, vehiclesAtRisk.size(), refuelPoints.size(), getRefuelLiters());
+    }
+}
@@ -0,0 +1,77 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.FuelConsumable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+Works out FleetManager.planFuel over flat arrays: every leg of every route in
+one double[] with an int[] of where each vehicle's legs start, and each
+vehicle's efficiency and fuel read once into double[]s up front. The burn loop
+then touches no objects. It repeats tryConsumeFuel's arithmetic (litres =
+km / efficiency, fails when that is more than the tank holds), so a leg this
+flags is exactly the one consumeFuel would throw on. Vehicles that don't burn
+fuel, and sailing ships (efficiency 0), never need a stop.
+ */
+class FuelPlanner {
+    private final Vehicle[] vehicles;
+    private final int[] legStart;
+    private final double[] legKm;
+    private final double[] efficiency;
+    private final double[] fuel;
+
+    FuelPlanner(List<Vehicle> vehicles, List<double[]> routes) {
+        int n = vehicles.size();
+        this.vehicles = vehicles.toArray(new Vehicle[0]);
+        this.legStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            legStart[i + 1] = legStart[i] + routes.get(i).length;
+        }
+        this.legKm = new double[legStart[n]];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(routes.get(i), 0, legKm, legStart[i], routes.get(i).length);
+        }
+        this.efficiency = new double[n];
+        this.fuel = new double[n];
+        for (int i = 0; i < n; i++) {
+            Vehicle v = this.vehicles[i];
+            if (v instanceof FuelConsumable) {
+                efficiency[i] = v.calculateFuelEfficiency();
+                fuel[i] = ((FuelConsumable) v).getFuelLevel();
+            }
+        }
+    }
+
+    // Each stop takes on a whole number of refuelLiters, as few as get the vehicle through the leg
+    FuelPlan plan(double refuelLiters) {
+        List<FuelPlan.RefuelPoint> points = new ArrayList<>();
+        List<String> atRisk = new ArrayList<>();
+        double burned = 0;
+        for (int i = 0; i < vehicles.length; i++) {
+            double e = efficiency[i];
+            if (e <= 0) continue;
+            double tank = fuel[i];
+            boolean risky = false;
+            for (int leg = legStart[i]; leg < legStart[i + 1]; leg++) {
+                double needed = legKm[leg] / e;
+                if (needed > tank) {
+                    double liters = Math.ceil((needed - tank) / refuelLiters) * refuelLiters;
+                    while (needed > tank + liters) {
+                        liters += refuelLiters;
+                    }
+                    points.add(new FuelPlan.RefuelPoint(vehicles[i].getId(), leg - legStart[i], tank, liters));
+                    tank += liters;
+                    risky = true;
+                }
+                tank -= needed;
+                burned += needed;
+            }
+            if (risky) {
+                atRisk.add(vehicles[i].getId());
+            }
+        }
+        return new FuelPlan(points, atRisk, legKm.length, burned);
+    }
+}
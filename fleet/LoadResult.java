@@ -0,0 +1,41 @@
+package fleet;
+
+/**
+Outcome of FleetManager.bulkLoadFromFile: how many rows became vehicles,
+how many were rejected, and how long the whole load took.
+ */
+public class LoadResult {
+    private final long rowsLoaded;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+
+    LoadResult(long rowsLoaded, long rowsRejected, long elapsedNanos) {
+        this.rowsLoaded = rowsLoaded;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsLoaded() {
+        return rowsLoaded;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Rows read (loaded + rejected) per second of wall-clock time
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) return 0;
+        return (rowsLoaded + rowsRejected) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d row(s), %d rejected, in %.1f ms (%.0f rows/s).",
+                rowsLoaded, rowsRejected, elapsedNanos / 1_000_000.0, getRowsPerSecond());
+    }
+}
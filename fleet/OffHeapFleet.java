@@ -0,0 +1,666 @@
+package fleet;
+
+import events.Events;
+import events.FleetEvent;
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.abstracts.AirVehicle;
+import vehicles.abstracts.LandVehicle;
+import vehicles.abstracts.SpecCatalog;
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleSpec;
+import vehicles.abstracts.VehicleType;
+import vehicles.abstracts.WaterVehicle;
+import vehicles.concrete.*;
+import vehicles.interfaces.CargoCarrier;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.PassengerCarrier;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+Fleet storage for very large fleets. Each vehicle is a fixed-width record in
+direct (off-heap) ByteBuffers instead of a Car/Truck/... object, so the garbage
+collector never has to walk the fleet. Vehicles are read and changed through
+small flyweight views that extend Vehicle and implement the usual interfaces;
+they take their efficiency and journey-time rules from the vehicle classes and
+publish the same events heap vehicles do.
+
+The ID lookup is an open-addressing int[] hash table over record numbers,
+so the only per-vehicle heap cost is one int slot.
+
+This is a store of its own rather than a FleetManager backend: FleetManager's
+indexes, listeners and journal all hold on to one Vehicle object per vehicle,
+which is exactly the heap cost this class exists to avoid.
+ */
+public class OffHeapFleet {
+    // Record layout, all offsets in bytes
+    private static final int TYPE = 0;              // byte, VehicleType ordinal
+    private static final int FLAGS = 1;             // byte, see FLAG_*
+    private static final int ID_LENGTH = 2;         // byte
+    private static final int PASSENGERS = 4;        // int
+    private static final int MODEL = 8;             // int, index into the spec dictionary
+    private static final int MAX_SPEED = 16;        // double
+    private static final int MILEAGE = 24;          // double
+    private static final int FUEL = 32;             // double
+    private static final int CARGO = 40;            // double
+    private static final int LAST_SERVICE = 48;     // double
+    private static final int EXTRA = 56;            // double, max altitude for airplanes
+    private static final int ID = 64;               // ID bytes (UTF-8)
+    public static final int MAX_ID_BYTES = 32;
+    private static final int RECORD_SIZE = ID + MAX_ID_BYTES;
+
+    private static final int FLAG_MAINTENANCE_NEEDED = 1;
+    private static final int FLAG_HAS_SAIL = 2;
+
+    // Records live in fixed-size chunks so growing never copies existing data
+    private static final int CHUNK_SHIFT = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = RECORDS_PER_CHUNK - 1;
+
+    private static final int EMPTY = -1;
+    private static final int DELETED = -2;
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int size;
+
+    // Specs (type and model) are few and repeat a lot, so records only store an index
+    private final List<VehicleSpec> specs = new ArrayList<>();
+    private final Map<VehicleSpec, Integer> specIndex = new HashMap<>();
+
+    // Hash table from ID to record number (EMPTY / DELETED for free slots)
+    private int[] idTable = newTable(1024);
+    private int usedSlots; // live entries plus DELETED markers
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Copies the vehicle's state into a new off-heap record
+    public void addVehicle(Vehicle v) throws InvalidOperationException {
+        byte[] idBytes = v.getId().getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > MAX_ID_BYTES) {
+            throw new InvalidOperationException("Vehicle ID " + v.getId() + " is longer than " + MAX_ID_BYTES + " bytes.");
+        }
+        if (findRecord(v.getId()) >= 0) {
+            throw new InvalidOperationException("Vehicle with ID " + v.getId() + " already exists.");
+        }
+        if ((size & CHUNK_MASK) == 0 && (size >> CHUNK_SHIFT) == chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE).order(ByteOrder.nativeOrder()));
+        }
+        int record = size++;
+        ByteBuffer buf = chunk(record);
+        int base = offset(record);
+
+        int flags = 0;
+        if (v instanceof Maintainable && ((Maintainable) v).isMaintenanceNeeded()) flags |= FLAG_MAINTENANCE_NEEDED;
+        if (v instanceof WaterVehicle && ((WaterVehicle) v).hasSail()) flags |= FLAG_HAS_SAIL;
+
+        buf.put(base + TYPE, (byte) v.getType().ordinal());
+        buf.put(base + FLAGS, (byte) flags);
+        buf.put(base + ID_LENGTH, (byte) idBytes.length);
+        buf.putInt(base + PASSENGERS, (v instanceof PassengerCarrier) ? ((PassengerCarrier) v).getCurrentPassengers() : 0);
+        buf.putInt(base + MODEL, specNumber(SpecCatalog.spec(v.getType(), v.getModel())));
+        buf.putDouble(base + MAX_SPEED, v.getMaxSpeed());
+        buf.putDouble(base + MILEAGE, v.getCurrentMileage());
+        buf.putDouble(base + FUEL, (v instanceof FuelConsumable) ? ((FuelConsumable) v).getFuelLevel() : 0.0);
+        buf.putDouble(base + CARGO, (v instanceof CargoCarrier) ? ((CargoCarrier) v).getCurrentCargo() : 0.0);
+        buf.putDouble(base + LAST_SERVICE, (v instanceof Maintainable) ? ((Maintainable) v).getMileageAtLastService() : 0.0);
+        buf.putDouble(base + EXTRA, (v instanceof AirVehicle) ? ((AirVehicle) v).getMaxAltitude() : 0.0);
+        for (int i = 0; i < idBytes.length; i++) {
+            buf.put(base + ID + i, idBytes[i]);
+        }
+        insertId(record);
+    }
+
+    // Moves the last record into the freed slot, so earlier views of the last record become stale
+    public void removeVehicle(String id) throws InvalidOperationException {
+        int slot = findSlot(id);
+        if (slot < 0) {
+            throw new InvalidOperationException("Vehicle with ID " + id + " not found.");
+        }
+        int record = idTable[slot];
+        idTable[slot] = DELETED;
+        int last = size - 1;
+        if (record != last) {
+            int lastSlot = findSlot(readId(last));
+            ByteBuffer from = chunk(last);
+            ByteBuffer to = chunk(record);
+            int fromBase = offset(last);
+            int toBase = offset(record);
+            for (int i = 0; i < RECORD_SIZE; i += 8) {
+                to.putLong(toBase + i, from.getLong(fromBase + i));
+            }
+            idTable[lastSlot] = record;
+        }
+        size--;
+        if (size == 0) {
+            // nothing left to probe past, so the DELETED markers can go too
+            Arrays.fill(idTable, EMPTY);
+            usedSlots = 0;
+        }
+    }
+
+    // Returns a view of the vehicle with this ID (case-insensitive), or null
+    public Vehicle getVehicle(String id) {
+        int record = findRecord(id);
+        return (record < 0) ? null : newView(record);
+    }
+
+    // Builds an ordinary heap Vehicle with the same state as the record
+    public Vehicle toHeapVehicle(String id) throws InvalidOperationException, OverloadException {
+        int record = findRecord(id);
+        if (record < 0) {
+            throw new InvalidOperationException("Vehicle with ID " + id + " not found.");
+        }
+        return toHeapVehicle(newView(record));
+    }
+
+    private static Vehicle toHeapVehicle(RecordView view) throws InvalidOperationException, OverloadException {
+        Vehicle v;
+        switch (view.getType()) {
+            case CAR: v = new Car(view.getId(), view.getModel(), view.getMaxSpeed()); break;
+            case TRUCK: v = new Truck(view.getId(), view.getModel(), view.getMaxSpeed()); break;
+            case BUS: v = new Bus(view.getId(), view.getModel(), view.getMaxSpeed()); break;
+            case AIRPLANE: v = new Airplane(view.getId(), view.getModel(), view.getMaxSpeed(), view.extra()); break;
+            default: v = new CargoShip(view.getId(), view.getModel(), view.getMaxSpeed(), view.hasSail()); break;
+        }
+        v.setMileage(view.getCurrentMileage());
+        if (v instanceof PassengerCarrier) ((PassengerCarrier) v).setCurrentPassengers(view.passengers());
+        if (v instanceof CargoCarrier) ((CargoCarrier) v).setCurrentCargo(view.cargo());
+        ((FuelConsumable) v).setFuelLevel(view.getFuelLevel());
+        ((Maintainable) v).setMaintenanceNeeded(view.isMaintenanceNeeded());
+        ((Maintainable) v).setMileageAtLastService(view.getMileageAtLastService());
+        return v;
+    }
+
+    // Visits every vehicle, reusing one view per vehicle kind instead of allocating
+    public void forEachVehicle(Consumer<Vehicle> action) {
+        RecordView[] views = new RecordView[TYPES.length];
+        for (int record = 0; record < size; record++) {
+            action.accept(reusedView(views, record));
+        }
+    }
+
+    // Points the cached view for the record's kind at the record
+    private RecordView reusedView(RecordView[] views, int record) {
+        int type = chunk(record).get(offset(record) + TYPE);
+        RecordView view = views[type];
+        if (view == null) {
+            view = newView(record);
+            views[type] = view;
+        }
+        view.record = record;
+        return view;
+    }
+
+    // Moves every vehicle; ones without enough fuel stay put, like in FleetManager
+    public int startAllJourneys(double distance) {
+        int moved = 0;
+        if (distance <= 0) return 0;
+        RecordView[] views = new RecordView[TYPES.length];
+        for (int record = 0; record < size; record++) {
+            if (reusedView(views, record).moveAndReport(distance) == Vehicle.MOVE_OK) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    // Sailing ships are skipped, like in FleetManager
+    public void refuelAll(double amount) throws InvalidOperationException {
+        if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
+        RecordView[] views = new RecordView[TYPES.length];
+        for (int record = 0; record < size; record++) {
+            RecordView view = reusedView(views, record);
+            if (!view.hasSail()) {
+                view.refuel(amount);
+            }
+        }
+    }
+
+    public double getTotalMileage() {
+        double total = 0;
+        for (int record = 0; record < size; record++) {
+            total += chunk(record).getDouble(offset(record) + MILEAGE);
+        }
+        return total;
+    }
+
+    // Off-heap bytes in use, not counting the unused tail of the last chunk
+    public long getStorageBytes() {
+        return (long) size * RECORD_SIZE;
+    }
+
+    // --- RECORD ACCESS ---
+
+    private ByteBuffer chunk(int record) {
+        return chunks.get(record >>> CHUNK_SHIFT);
+    }
+
+    private static int offset(int record) {
+        return (record & CHUNK_MASK) * RECORD_SIZE;
+    }
+
+    private int specNumber(VehicleSpec spec) {
+        Integer number = specIndex.get(spec);
+        if (number == null) {
+            number = specs.size();
+            specs.add(spec);
+            specIndex.put(spec, number);
+        }
+        return number;
+    }
+
+    private String readId(int record) {
+        ByteBuffer buf = chunk(record);
+        int base = offset(record);
+        byte[] bytes = new byte[buf.get(base + ID_LENGTH)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(base + ID + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- ID HASH TABLE ---
+
+    // Hash of the lower-cased ID, so lookups are case-insensitive like FleetManager
+    private static int hash(String lowerId) {
+        int h = lowerId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private void insertId(int record) {
+        if ((usedSlots + 1) * 2 > idTable.length) {
+            rehash();
+        }
+        int mask = idTable.length - 1;
+        int slot = hash(readId(record).toLowerCase(Locale.ROOT)) & mask;
+        while (idTable[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (idTable[slot] == EMPTY) {
+            usedSlots++;
+        }
+        idTable[slot] = record;
+    }
+
+    private void rehash() {
+        int capacity = idTable.length;
+        while (size * 4 > capacity) {
+            capacity *= 2;
+        }
+        idTable = newTable(capacity);
+        usedSlots = 0;
+        for (int record = 0; record < size - 1; record++) {
+            insertId(record);
+        }
+    }
+
+    private int findRecord(String id) {
+        int slot = findSlot(id);
+        return (slot < 0) ? -1 : idTable[slot];
+    }
+
+    private int findSlot(String id) {
+        if (id == null) return -1;
+        String lowerId = id.toLowerCase(Locale.ROOT);
+        int mask = idTable.length - 1;
+        int slot = hash(lowerId) & mask;
+        while (idTable[slot] != EMPTY) {
+            int record = idTable[slot];
+            if (record >= 0 && record < size && readId(record).equalsIgnoreCase(id)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // --- FLYWEIGHT VIEWS ---
+
+    private RecordView newView(int record) {
+        RecordView view;
+        try {
+            switch (TYPES[chunk(record).get(offset(record) + TYPE)]) {
+                case CAR: view = new PassengerView(); break;
+                case BUS:
+                case AIRPLANE: view = new PassengerCargoView(); break;
+                default: view = new CargoView(); break;
+            }
+        } catch (InvalidOperationException e) {
+            // the placeholder ID is never empty, so this can't happen
+            throw new IllegalStateException(e);
+        }
+        view.record = record;
+        return view;
+    }
+
+    /**
+    A Vehicle that reads and writes one off-heap record. Changing which record it
+    points at is all it takes to reuse it, so one view can walk the whole fleet.
+    Every kind burns fuel (sailing ships report 0) and can be maintained.
+     */
+    private abstract class RecordView extends Vehicle implements FuelConsumable, Maintainable {
+        int record;
+
+        // The Vehicle fields are unused, every getter reads the record instead
+        RecordView() throws InvalidOperationException {
+            super("off-heap");
+        }
+
+        private ByteBuffer buf() {
+            return chunk(record);
+        }
+
+        private int base() {
+            return offset(record);
+        }
+
+        private int flags() {
+            return buf().get(base() + FLAGS);
+        }
+
+        private void setFlag(int flag, boolean on) {
+            int flags = on ? (flags() | flag) : (flags() & ~flag);
+            buf().put(base() + FLAGS, (byte) flags);
+        }
+
+        double extra() {
+            return buf().getDouble(base() + EXTRA);
+        }
+
+        boolean hasSail() {
+            return (flags() & FLAG_HAS_SAIL) != 0;
+        }
+
+        int passengers() {
+            return buf().getInt(base() + PASSENGERS);
+        }
+
+        double cargo() {
+            return buf().getDouble(base() + CARGO);
+        }
+
+        @Override
+        public String getId() {
+            return readId(record);
+        }
+
+        @Override
+        public String getModel() {
+            return getSpec().getModel();
+        }
+
+        @Override
+        public double getMaxSpeed() {
+            return buf().getDouble(base() + MAX_SPEED);
+        }
+
+        @Override
+        public VehicleSpec getSpec() {
+            return specs.get(buf().getInt(base() + MODEL));
+        }
+
+        @Override
+        public double getCurrentMileage() {
+            return buf().getDouble(base() + MILEAGE);
+        }
+
+        @Override
+        public void setMileage(double mileage) {
+            if (mileage >= 0) {
+                buf().putDouble(base() + MILEAGE, mileage);
+            }
+        }
+
+        @Override
+        protected void updateMileage(double distance) {
+            buf().putDouble(base() + MILEAGE, getCurrentMileage() + distance);
+        }
+
+        @Override
+        public VehicleType getType() {
+            return TYPES[buf().get(base() + TYPE)];
+        }
+
+        // The sink may keep the vehicle until later, and this view may be pointed at
+        // another record by then, so it gets a view of its own
+        private void publish(FleetEvent event, double value, double detail) {
+            if (Events.isEnabled()) {
+                Events.publish(event, newView(record), value, detail);
+            }
+        }
+
+        @Override
+        public void move(double distance) throws InvalidOperationException {
+            if (moveAndReport(distance) == MOVE_INVALID_DISTANCE) {
+                throw new InvalidOperationException("Distance must be positive.", false);
+            }
+        }
+
+        // Same text as the heap vehicle of this kind, only built when a sink shows the event
+        @Override
+        public String describeEvent(FleetEvent event, double value, double detail) {
+            try {
+                return toHeapVehicle(this).describeEvent(event, value, detail);
+            } catch (InvalidOperationException | OverloadException e) {
+                return super.describeEvent(event, value, detail);
+            }
+        }
+
+        // move() without the exception, returns the MOVE_* code
+        int moveAndReport(double distance) {
+            int status = tryMove(distance);
+            if (status == MOVE_NO_FUEL) {
+                publish(FleetEvent.MOVE_FAILED, distance, 0);
+            } else if (status == MOVE_OK) {
+                publish(FleetEvent.MOVED, distance, 0);
+            }
+            return status;
+        }
+
+        @Override
+        public int tryMove(double distance) {
+            if (distance <= 0) return MOVE_INVALID_DISTANCE;
+            if (tryConsumeFuel(distance) < 0) return MOVE_NO_FUEL;
+            updateMileage(distance);
+            return MOVE_OK;
+        }
+
+        @Override
+        public double calculateFuelEfficiency() {
+            switch (getType()) {
+                case TRUCK: return Truck.fuelEfficiency(getSpec(), cargo());
+                case CARGO_SHIP: return CargoShip.fuelEfficiency(getSpec(), hasSail());
+                default: return getSpec().getFuelEfficiency();
+            }
+        }
+
+        @Override
+        public double estimateJourneyTime(double distance) {
+            switch (getType()) {
+                case AIRPLANE: return AirVehicle.journeyTime(distance, getMaxSpeed());
+                case CARGO_SHIP: return WaterVehicle.journeyTime(distance, getMaxSpeed());
+                default: return LandVehicle.journeyTime(distance, getMaxSpeed());
+            }
+        }
+
+        // FuelConsumable
+
+        @Override
+        public void refuel(double amount) throws InvalidOperationException {
+            if (hasSail()) throw new InvalidOperationException("Sailing ships do not consume fuel.");
+            if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
+            buf().putDouble(base() + FUEL, getFuelLevel() + amount);
+            publish(FleetEvent.REFUELED, amount, getFuelLevel());
+        }
+
+        @Override
+        public double getFuelLevel() {
+            return hasSail() ? 0 : buf().getDouble(base() + FUEL);
+        }
+
+        @Override
+        public double consumeFuel(double distance) throws InsufficientFuelException {
+            double fuelUsed = tryConsumeFuel(distance);
+            if (fuelUsed < 0) throw new InsufficientFuelException("Not enough fuel.", false);
+            return fuelUsed;
+        }
+
+        @Override
+        public double tryConsumeFuel(double distance) {
+            if (hasSail()) return 0;
+            double fuelNeeded = distance / calculateFuelEfficiency();
+            if (fuelNeeded > getFuelLevel()) return NOT_ENOUGH_FUEL;
+            buf().putDouble(base() + FUEL, getFuelLevel() - fuelNeeded);
+            return fuelNeeded;
+        }
+
+        @Override
+        public void setFuelLevel(double amount) {
+            buf().putDouble(base() + FUEL, amount);
+        }
+
+        // Maintainable
+
+        @Override
+        public void scheduleMaintenance() {
+            setFlag(FLAG_MAINTENANCE_NEEDED, true);
+        }
+
+        @Override
+        public boolean needsMaintenance() {
+            return getKmUntilService() < 0 || isMaintenanceNeeded();
+        }
+
+        @Override
+        public void performMaintenance() {
+            setFlag(FLAG_MAINTENANCE_NEEDED, false);
+            buf().putDouble(base() + LAST_SERVICE, getCurrentMileage());
+            publish(FleetEvent.MAINTAINED, 0, 0);
+        }
+
+        @Override
+        public void setMileageAtLastService(double mileage) {
+            buf().putDouble(base() + LAST_SERVICE, mileage);
+        }
+
+        @Override
+        public void setMaintenanceNeeded(boolean needed) {
+            setFlag(FLAG_MAINTENANCE_NEEDED, needed);
+        }
+
+        @Override
+        public double getKmUntilService() {
+            return getMileageAtLastService() + SERVICE_INTERVAL_KM - getCurrentMileage();
+        }
+
+        @Override
+        public double getMileageAtLastService() {
+            return buf().getDouble(base() + LAST_SERVICE);
+        }
+
+        @Override
+        public boolean isMaintenanceNeeded() {
+            return (flags() & FLAG_MAINTENANCE_NEEDED) != 0;
+        }
+
+        // Shared bodies for the cargo and passenger views below
+
+        double cargoCapacity() {
+            return getType().getCargoCapacity();
+        }
+
+        int passengerCapacity() {
+            return getType().getPassengerCapacity();
+        }
+
+        void addCargo(double weight) throws OverloadException {
+            if (cargo() + weight > cargoCapacity()) throw new OverloadException("Cargo capacity exceeded.");
+            buf().putDouble(base() + CARGO, cargo() + weight);
+        }
+
+        void removeCargo(double weight) throws InvalidOperationException {
+            if (weight > cargo()) throw new InvalidOperationException("Cannot unload more cargo than loaded.");
+            buf().putDouble(base() + CARGO, cargo() - weight);
+        }
+
+        void putCargo(double weight) throws OverloadException {
+            if (weight < 0 || weight > cargoCapacity()) throw new OverloadException("Invalid initial cargo weight.");
+            buf().putDouble(base() + CARGO, weight);
+        }
+
+        void addPassengers(int count) throws OverloadException {
+            if (passengers() + count > passengerCapacity()) throw new OverloadException("Passenger capacity exceeded.");
+            buf().putInt(base() + PASSENGERS, passengers() + count);
+        }
+
+        void removePassengers(int count) throws InvalidOperationException {
+            if (count > passengers()) throw new InvalidOperationException("Cannot disembark more passengers than on board.");
+            buf().putInt(base() + PASSENGERS, passengers() - count);
+        }
+
+        void putPassengers(int count) throws OverloadException {
+            if (count < 0 || count > passengerCapacity()) throw new OverloadException("Invalid initial passenger count.");
+            buf().putInt(base() + PASSENGERS, count);
+        }
+    }
+
+    // Trucks and cargo ships
+    private class CargoView extends RecordView implements CargoCarrier {
+        CargoView() throws InvalidOperationException {}
+
+        @Override public void loadCargo(double weight) throws OverloadException { addCargo(weight); }
+        @Override public void unloadCargo(double weight) throws InvalidOperationException { removeCargo(weight); }
+        @Override public double getCargoCapacity() { return cargoCapacity(); }
+        @Override public double getCurrentCargo() { return cargo(); }
+        @Override public void setCurrentCargo(double weight) throws OverloadException { putCargo(weight); }
+    }
+
+    // Cars
+    private class PassengerView extends RecordView implements PassengerCarrier {
+        PassengerView() throws InvalidOperationException {}
+
+        @Override public void boardPassengers(int count) throws OverloadException { addPassengers(count); }
+        @Override public void disembarkPassengers(int count) throws InvalidOperationException { removePassengers(count); }
+        @Override public int getPassengerCapacity() { return passengerCapacity(); }
+        @Override public int getCurrentPassengers() { return passengers(); }
+        @Override public void setCurrentPassengers(int count) throws OverloadException { putPassengers(count); }
+    }
+
+    // Buses and airplanes
+    private class PassengerCargoView extends RecordView implements PassengerCarrier, CargoCarrier {
+        PassengerCargoView() throws InvalidOperationException {}
+
+        @Override public void loadCargo(double weight) throws OverloadException { addCargo(weight); }
+        @Override public void unloadCargo(double weight) throws InvalidOperationException { removeCargo(weight); }
+        @Override public double getCargoCapacity() { return cargoCapacity(); }
+        @Override public double getCurrentCargo() { return cargo(); }
+        @Override public void setCurrentCargo(double weight) throws OverloadException { putCargo(weight); }
+        @Override public void boardPassengers(int count) throws OverloadException { addPassengers(count); }
+        @Override public void disembarkPassengers(int count) throws InvalidOperationException { removePassengers(count); }
+        @Override public int getPassengerCapacity() { return passengerCapacity(); }
+        @Override public int getCurrentPassengers() { return passengers(); }
+        @Override public void setCurrentPassengers(int count) throws OverloadException { putPassengers(count); }
+    }
+}
@@ -0,0 +1,12 @@
+package fleet;
+
+/**
+How FleetManager.assignCargo picks a vehicle for each shipment. Both take the
+shipments heaviest first, which places big loads while there is still room for them.
+ */
+public enum PackingStrategy {
+    // First vehicle in fleet order with room for the shipment, fills the early vehicles up
+    FIRST_FIT_DECREASING,
+    // Vehicle left with the least room after taking the shipment, keeps big gaps for big loads
+    BEST_FIT_DECREASING
+}
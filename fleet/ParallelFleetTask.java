@@ -0,0 +1,70 @@
+package fleet;
+
+import events.Events;
+import vehicles.abstracts.Vehicle;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+Fork-join task that applies one action to a slice of vehicles, splitting the
+slice in half until it is small enough, and merges the per-slice results.
+Each vehicle is only touched by one worker, with its events turned off.
+ */
+class ParallelFleetTask extends RecursiveTask<BulkResult> {
+    private static final long serialVersionUID = 1L;
+
+    // Slices smaller than this are processed on the current worker
+    private static final int SLICE_SIZE = 1024;
+
+    // The work for one vehicle. Returns null on success or a failure message;
+    // thrown exceptions are recorded as failures too.
+    interface VehicleAction {
+        String apply(Vehicle v) throws Exception;
+    }
+
+    private final List<Vehicle> vehicles;
+    private final int from;
+    private final int to;
+    private final VehicleAction action;
+
+    ParallelFleetTask(List<Vehicle> vehicles, int from, int to, VehicleAction action) {
+        this.vehicles = vehicles;
+        this.from = from;
+        this.to = to;
+        this.action = action;
+    }
+
+    @Override
+    protected BulkResult compute() {
+        if (to - from <= SLICE_SIZE) {
+            BulkResult result = new BulkResult();
+            boolean wasQuiet = Events.setQuiet(true);
+            try {
+                for (int i = from; i < to; i++) {
+                    Vehicle v = vehicles.get(i);
+                    try {
+                        String failure = action.apply(v);
+                        if (failure == null) {
+                            result.recordSuccess();
+                        } else {
+                            result.recordFailure(v.getId(), failure);
+                        }
+                    } catch (Exception e) {
+                        result.recordFailure(v.getId(), e.getMessage());
+                    }
+                }
+            } finally {
+                Events.setQuiet(wasQuiet);
+            }
+            return result;
+        }
+        int middle = (from + to) >>> 1;
+        ParallelFleetTask left = new ParallelFleetTask(vehicles, from, middle, action);
+        ParallelFleetTask right = new ParallelFleetTask(vehicles, middle, to, action);
+        left.fork();
+        BulkResult result = right.compute();
+        result.merge(left.join());
+        return result;
+    }
+}
@@ -0,0 +1,9 @@
+package fleet;
+
+/**
+Receives the CSV rows the bulk loader could not turn into vehicles.
+Line numbers start at 1 and count blank lines too, so they match a text editor.
+ */
+public interface RejectedRowSink {
+    void rejected(long lineNumber, String line, String reason);
+}
@@ -0,0 +1,13 @@
+package fleet;
+
+/**
+Output formats supported by FleetManager.writeReport().
+ */
+public enum ReportFormat {
+    // The same text generateReport() returns
+    TEXT,
+    // One header row then one row per vehicle, no summary
+    CSV,
+    // One object with the vehicle list and the summary
+    JSON
+}
@@ -0,0 +1,273 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+import vehicles.interfaces.Maintainable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+Writes a fleet report straight to a Writer, one vehicle at a time.
+Every line is built in the same StringBuilder and copied into the same char buffer,
+so a report on a huge fleet creates no per-line strings and never exists as one big String.
+Numbers are appended with StringBuilder.append(double), which prints the same digits as "" + d.
+ */
+class ReportWriter {
+    private static final int BUFFER_SIZE = 8192;
+    private static final String NEWLINE = "\n";
+
+    private final FleetManager fleet;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int buffered;
+
+    ReportWriter(FleetManager fleet, Writer out) {
+        this.fleet = fleet;
+        this.out = out;
+    }
+
+    void write(ReportFormat format) throws IOException {
+        switch (format) {
+            case CSV:
+                writeCsv();
+                break;
+            case JSON:
+                writeJson();
+                break;
+            default:
+                writeText();
+                break;
+        }
+        flushBuffer();
+        out.flush();
+    }
+
+    // --- TEXT ---
+
+    private void writeText() throws IOException {
+        if (fleet.size() == 0) {
+            line.append("The fleet is currently empty.");
+            endLine();
+            return;
+        }
+        line.append(NEWLINE).append("Fleet Status Report").append(NEWLINE);
+        line.append("Total Vehicles: ").append(fleet.size()).append(NEWLINE).append(NEWLINE);
+        endLine();
+
+        for (Vehicle v : fleet.vehiclesInListingOrder()) {
+            line.append("  - ID: ").append(v.getId());
+            line.append(", Type: ").append(v.getType().getDisplayName());
+            line.append(", Model: ").append(v.getModel());
+            line.append(", Mileage: ").append(v.getCurrentMileage()).append(" km");
+            line.append(", Needs Maintenance: ").append(needsMaintenance(v) ? "Yes" : "No").append(NEWLINE);
+            endLine();
+        }
+
+        line.append(NEWLINE).append("Summary").append(NEWLINE);
+        line.append("Total Fleet Mileage: ").append(fleet.getTotalMileage()).append(" km").append(NEWLINE);
+        line.append("Average Fuel Efficiency: ").append(fleet.getAverageEfficiency()).append(" km/l").append(NEWLINE);
+
+        // Same layout as Set.toString(), without building that string
+        Set<String> models = fleet.getDistinctModels();
+        line.append("Distinct Vehicle Models: ").append(models.size()).append(" ([");
+        Iterator<String> it = models.iterator();
+        while (it.hasNext()) {
+            line.append(it.next());
+            if (it.hasNext()) {
+                line.append(", ");
+            }
+        }
+        line.append("])").append(NEWLINE);
+
+        Vehicle fastest = fleet.getFastestVehicle();
+        if (fastest != null) {
+            line.append("Fastest Vehicle: ").append(fastest.getId()).append(" (").append(fastest.getModel())
+                    .append(") at ").append(fastest.getMaxSpeed()).append(" km/h").append(NEWLINE);
+        }
+        Vehicle slowest = fleet.getSlowestVehicle();
+        if (slowest != null) {
+            line.append("Slowest Vehicle: ").append(slowest.getId()).append(" (").append(slowest.getModel())
+                    .append(") at ").append(slowest.getMaxSpeed()).append(" km/h").append(NEWLINE);
+        }
+
+        line.append("Vehicle Counts by Type:").append(NEWLINE);
+        for (VehicleType type : VehicleType.values()) {
+            int count = fleet.countByType(type);
+            if (count > 0) {
+                line.append("  - ").append(type.getDisplayName()).append("s: ").append(count).append(NEWLINE);
+            }
+        }
+        endLine();
+    }
+
+    // --- CSV ---
+
+    private void writeCsv() throws IOException {
+        line.append("id,type,model,mileage_km,needs_maintenance").append(NEWLINE);
+        endLine();
+        for (Vehicle v : fleet.vehiclesInListingOrder()) {
+            appendCsvField(v.getId());
+            line.append(',').append(v.getType().getDisplayName()).append(',');
+            appendCsvField(v.getModel());
+            line.append(',').append(v.getCurrentMileage());
+            line.append(',').append(needsMaintenance(v)).append(NEWLINE);
+            endLine();
+        }
+    }
+
+    // Quotes the field only when it contains a comma, quote or line break
+    private void appendCsvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    // --- JSON ---
+
+    private void writeJson() throws IOException {
+        line.append("{\"totalVehicles\":").append(fleet.size()).append(",\"vehicles\":[");
+        endLine();
+        boolean first = true;
+        for (Vehicle v : fleet.vehiclesInListingOrder()) {
+            if (!first) {
+                line.append(',');
+            }
+            first = false;
+            line.append(NEWLINE).append("{\"id\":");
+            appendJsonString(v.getId());
+            line.append(",\"type\":\"").append(v.getType().getDisplayName()).append("\",\"model\":");
+            appendJsonString(v.getModel());
+            line.append(",\"mileageKm\":");
+            appendJsonNumber(v.getCurrentMileage());
+            line.append(",\"needsMaintenance\":").append(needsMaintenance(v)).append('}');
+            endLine();
+        }
+
+        line.append(NEWLINE).append("],\"summary\":{\"totalMileageKm\":");
+        appendJsonNumber(fleet.getTotalMileage());
+        line.append(",\"averageEfficiencyKmPerLitre\":");
+        appendJsonNumber(fleet.getAverageEfficiency());
+        line.append(",\"totalCargoKg\":");
+        appendJsonNumber(fleet.getTotalCargo());
+        line.append(",\"distinctModels\":[");
+        boolean firstModel = true;
+        for (String model : fleet.getDistinctModels()) {
+            if (!firstModel) {
+                line.append(',');
+            }
+            firstModel = false;
+            appendJsonString(model);
+        }
+        line.append(']');
+        appendJsonVehicle("fastest", fleet.getFastestVehicle());
+        appendJsonVehicle("slowest", fleet.getSlowestVehicle());
+        line.append(",\"countsByType\":{");
+        boolean firstType = true;
+        for (VehicleType type : VehicleType.values()) {
+            int count = fleet.countByType(type);
+            if (count > 0) {
+                if (!firstType) {
+                    line.append(',');
+                }
+                firstType = false;
+                line.append('"').append(type.getDisplayName()).append("\":").append(count);
+            }
+        }
+        line.append("}}}").append(NEWLINE);
+        endLine();
+    }
+
+    private void appendJsonVehicle(String name, Vehicle v) {
+        line.append(",\"").append(name).append("\":");
+        if (v == null) {
+            line.append("null");
+            return;
+        }
+        line.append("{\"id\":");
+        appendJsonString(v.getId());
+        line.append(",\"model\":");
+        appendJsonString(v.getModel());
+        line.append(",\"maxSpeed\":");
+        appendJsonNumber(v.getMaxSpeed());
+        line.append('}');
+    }
+
+    // JSON has no NaN or Infinity, those are written as null
+    private void appendJsonNumber(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            line.append("null");
+        } else {
+            line.append(value);
+        }
+    }
+
+    private void appendJsonString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        line.append("\\u00");
+                        line.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    // --- OUTPUT ---
+
+    private static boolean needsMaintenance(Vehicle v) {
+        return v instanceof Maintainable && ((Maintainable) v).needsMaintenance();
+    }
+
+    // Moves the finished line into the char buffer and empties the builder for the next one
+    private void endLine() throws IOException {
+        int length = line.length();
+        int start = 0;
+        while (start < length) {
+            if (buffered == buffer.length) {
+                flushBuffer();
+            }
+            int count = Math.min(length - start, buffer.length - buffered);
+            line.getChars(start, start + count, buffer, buffered);
+            buffered += count;
+            start += count;
+        }
+        line.setLength(0);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffered > 0) {
+            out.write(buffer, 0, buffered);
+            buffered = 0;
+        }
+    }
+}
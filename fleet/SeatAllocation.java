@@ -0,0 +1,44 @@
+package fleet;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+Outcome of booking one group with FleetManager.bookGroup: the seats taken on
+each vehicle, or nothing at all when the fleet had too few free seats.
+ */
+public class SeatAllocation {
+    private final int groupSize;
+    private final Map<String, Integer> seatsByVehicle;
+
+    SeatAllocation(int groupSize, Map<String, Integer> seatsByVehicle) {
+        this.groupSize = groupSize;
+        this.seatsByVehicle = seatsByVehicle;
+    }
+
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    // Seats taken per vehicle ID, in the order the vehicles were filled
+    public Map<String, Integer> getSeatsByVehicle() {
+        return Collections.unmodifiableMap(seatsByVehicle);
+    }
+
+    public boolean isSeated() {
+        return !seatsByVehicle.isEmpty();
+    }
+
+    // How many vehicles the group was split across
+    public int getVehicleCount() {
+        return seatsByVehicle.size();
+    }
+
+    @Override
+    public String toString() {
+        if (!isSeated()) {
+            return "Group of " + groupSize + " not seated, not enough free seats.";
+        }
+        return "Group of " + groupSize + " seated on " + seatsByVehicle.size() + " vehicle(s): " + seatsByVehicle;
+    }
+}
@@ -0,0 +1,91 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.PassengerCarrier;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+Free-seat index behind FleetManager.bookGroup. PassengerCarriers sit in one
+bucket per free-seat count (a few hundred at most), and a BitSet marks the
+non-empty buckets, so "fewest free seats that still fit n" and "most free
+seats" are one nextSetBit / previousSetBit away. Adding, removing and updating
+a vehicle are O(1); the total number of free seats is kept alongside so a
+group too big for the whole fleet is turned down at once.
+ */
+class SeatIndex {
+    private final List<Set<Vehicle>> buckets = new ArrayList<>();
+    private final BitSet nonEmpty = new BitSet();
+    private final Map<Vehicle, Integer> freeSeatsOf = new HashMap<>();
+    private long totalFree;
+
+    SeatIndex(Collection<Vehicle> vehicles) {
+        for (Vehicle v : vehicles) {
+            add(v);
+        }
+    }
+
+    void add(Vehicle v) {
+        if (!(v instanceof PassengerCarrier)) return;
+        PassengerCarrier p = (PassengerCarrier) v;
+        int free = Math.max(0, p.getPassengerCapacity() - p.getCurrentPassengers());
+        freeSeatsOf.put(v, free);
+        bucket(free).add(v);
+        nonEmpty.set(free);
+        totalFree += free;
+    }
+
+    void remove(Vehicle v) {
+        Integer free = freeSeatsOf.remove(v);
+        if (free == null) return;
+        Set<Vehicle> bucket = buckets.get(free);
+        bucket.remove(v);
+        if (bucket.isEmpty()) {
+            nonEmpty.clear(free);
+        }
+        totalFree -= free;
+    }
+
+    // Re-reads the vehicle's passengers after a change
+    void update(Vehicle v) {
+        if (freeSeatsOf.containsKey(v)) {
+            remove(v);
+            add(v);
+        }
+    }
+
+    long getTotalFreeSeats() {
+        return totalFree;
+    }
+
+    // Vehicle with the fewest free seats that still has at least `seats`, or null if none has
+    Vehicle tightestFit(int seats) {
+        int free = nonEmpty.nextSetBit(Math.max(seats, 1));
+        return (free < 0) ? null : buckets.get(free).iterator().next();
+    }
+
+    // Vehicle with the most free seats, or null if every seat is taken
+    Vehicle mostFree() {
+        int free = nonEmpty.previousSetBit(nonEmpty.length() - 1);
+        return (free <= 0) ? null : buckets.get(free).iterator().next();
+    }
+
+    int freeSeats(Vehicle v) {
+        Integer free = freeSeatsOf.get(v);
+        return (free == null) ? 0 : free;
+    }
+
+    private Set<Vehicle> bucket(int free) {
+        while (buckets.size() <= free) {
+            buckets.add(new LinkedHashSet<>());
+        }
+        return buckets.get(free);
+    }
+}
@@ -0,0 +1,69 @@
+package fleet;
+
+/**
+Outcome of FleetManager.simulate: what the fleet did over the simulated period,
+and how fast the simulation got through its events.
+ */
+public class SimulationResult {
+    private final double simulatedHours;
+    private final long events;
+    private final long trips;
+    private final long refuels;
+    private final long services;
+    private final double kilometres;
+    private final long elapsedNanos;
+
+    SimulationResult(double simulatedHours, long events, long trips, long refuels, long services,
+                     double kilometres, long elapsedNanos) {
+        this.simulatedHours = simulatedHours;
+        this.events = events;
+        this.trips = trips;
+        this.refuels = refuels;
+        this.services = services;
+        this.kilometres = kilometres;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getSimulatedHours() {
+        return simulatedHours;
+    }
+
+    // Every event taken off the queues: trips ending, refuels and services finishing
+    public long getEvents() {
+        return events;
+    }
+
+    public long getTrips() {
+        return trips;
+    }
+
+    public long getRefuels() {
+        return refuels;
+    }
+
+    public long getServices() {
+        return services;
+    }
+
+    public double getKilometres() {
+        return kilometres;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Simulated events per second of wall-clock time
+    public double getEventsPerSecond() {
+        if (elapsedNanos <= 0) return 0;
+        return events * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Simulated %.0f h: %d trip(s) over %.0f km, %d refuel(s), %d service(s); "
+                        + "%d event(s) in %.1f ms (%.0f events/s).",
+                simulatedHours, trips, kilometres, refuels, services, events, elapsedNanos / 1_000_000.0,
+                getEventsPerSecond());
+    }
+}
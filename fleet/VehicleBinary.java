@@ -0,0 +1,176 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+Self-contained binary form of one vehicle, used by the journal and by delta files:
+model (short length + UTF-8), type, max speed, mileage, fuel, maintenance flag,
+mileage at last service, then the type codec's fixed-width fields.
+The ID is not included, callers write it first since they need it for every entry.
+Buffers are expected to be little-endian.
+ */
+final class VehicleBinary {
+    // type + max speed + mileage + fuel + maintenance flag + last service
+    private static final int FIXED_BYTES = 1 + 8 + 8 + 8 + 1 + 8;
+
+    private VehicleBinary() {
+    }
+
+    // UTF-8 bytes of a string that has to fit a short length prefix
+    static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Text too long to store: " + value.length() + " characters.");
+        }
+        return bytes;
+    }
+
+    static void putString(ByteBuffer out, byte[] bytes) {
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    // Bytes putString(out, value) takes, length prefix included, without encoding the string
+    static int stringSize(String value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1; // unpaired, encoded as '?' like String.getBytes does
+            } else {
+                bytes += 3;
+            }
+        }
+        if (bytes > 0xFFFF) {
+            throw new IllegalArgumentException("Text too long to store: " + value.length() + " characters.");
+        }
+        return 2 + bytes;
+    }
+
+    // Same bytes as putString(out, encode(value)), written straight from the chars
+    static void putString(ByteBuffer out, String value) {
+        out.putShort((short) (stringSize(value) - 2));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static String getString(ByteBuffer in, int at) {
+        byte[] bytes = new byte[stringBytes(in, at) - 2];
+        in.get(at + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Size of the string stored at `at`, including its length prefix
+    static int stringBytes(ByteBuffer in, int at) {
+        return 2 + Short.toUnsignedInt(in.getShort(at));
+    }
+
+    // Bytes write() will put for this vehicle, given its encoded model
+    static int size(Vehicle v, byte[] model) {
+        return 2 + model.length + FIXED_BYTES + VehicleCodecs.recordCodec(v.getType()).extraBytes();
+    }
+
+    // Same as size(v, encode(v.getModel())) without encoding the model
+    static int size(Vehicle v) {
+        return stringSize(v.getModel()) + FIXED_BYTES + VehicleCodecs.recordCodec(v.getType()).extraBytes();
+    }
+
+    static void write(Vehicle v, byte[] model, ByteBuffer out) {
+        putString(out, model);
+        writeFixed(v, out);
+    }
+
+    // Same as write(v, encode(v.getModel()), out) without encoding the model first
+    static void write(Vehicle v, ByteBuffer out) {
+        putString(out, v.getModel());
+        writeFixed(v, out);
+    }
+
+    private static void writeFixed(Vehicle v, ByteBuffer out) {
+        out.put((byte) v.getType().ordinal());
+        out.putDouble(v.getMaxSpeed());
+        out.putDouble(v.getCurrentMileage());
+        out.putDouble((v instanceof FuelConsumable) ? ((FuelConsumable) v).getFuelLevel() : 0.0);
+        putMaintenance(v, out);
+        VehicleCodecs.recordCodec(v.getType()).writeRecord(v, out);
+    }
+
+    // Maintenance flag and mileage at last service, 9 bytes
+    static void putMaintenance(Vehicle v, ByteBuffer out) {
+        boolean needed = false;
+        double lastService = 0;
+        if (v instanceof Maintainable) {
+            needed = ((Maintainable) v).isMaintenanceNeeded();
+            lastService = ((Maintainable) v).getMileageAtLastService();
+        }
+        out.put((byte) (needed ? 1 : 0));
+        out.putDouble(lastService);
+    }
+
+    // Position of the type byte in the record written by write() at `at`
+    static int typeAt(ByteBuffer in, int at) {
+        return at + stringBytes(in, at);
+    }
+
+    // Builds the vehicle written by write() at `at`
+    static Vehicle read(ByteBuffer in, int at, String id) throws Exception {
+        String model = getString(in, at);
+        at += stringBytes(in, at);
+        int typeIndex = in.get(at);
+        VehicleType[] types = VehicleType.values();
+        if (typeIndex < 0 || typeIndex >= types.length) {
+            throw new IllegalArgumentException("Unknown vehicle type " + typeIndex + ".");
+        }
+        Vehicle v = VehicleCodecs.recordCodec(types[typeIndex]).readRecord(in, at + FIXED_BYTES, id, model,
+                in.getDouble(at + 1));
+        FleetManager.restoreCommonState(v, in.getDouble(at + 9), in.getDouble(at + 17),
+                in.get(at + 25) != 0, in.getDouble(at + 26));
+        return v;
+    }
+
+    // A detached vehicle in the same state as v, built back from its binary form
+    static Vehicle copy(Vehicle v) {
+        ByteBuffer buffer = ByteBuffer.allocate(size(v)).order(ByteOrder.LITTLE_ENDIAN);
+        write(v, buffer);
+        try {
+            return read(buffer, 0, v.getId());
+        } catch (Exception e) {
+            throw new IllegalStateException("Vehicle " + v.getId() + " could not be copied: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.abstracts.VehicleType;
+import vehicles.concrete.*;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+Registry of the CSV and binary record codecs for each VehicleType, so saving and
+loading look the codec up by type instead of switching on it in several places.
+ */
+final class VehicleCodecs {
+    // Each type has one object that handles both formats
+    private interface Codec extends VehicleCsvCodec, VehicleRecordCodec {
+    }
+
+    private static final Map<VehicleType, Codec> CODECS = new EnumMap<>(VehicleType.class);
+
+    static {
+        CODECS.put(VehicleType.CAR, new CarCodec());
+        CODECS.put(VehicleType.TRUCK, new TruckCodec());
+        CODECS.put(VehicleType.BUS, new BusCodec());
+        CODECS.put(VehicleType.AIRPLANE, new AirplaneCodec());
+        CODECS.put(VehicleType.CARGO_SHIP, new CargoShipCodec());
+    }
+
+    private VehicleCodecs() {
+    }
+
+    static VehicleCsvCodec forType(VehicleType type) {
+        return codec(type);
+    }
+
+    static VehicleRecordCodec recordCodec(VehicleType type) {
+        return codec(type);
+    }
+
+    private static Codec codec(VehicleType type) {
+        Codec codec = CODECS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("No codec for vehicle type: " + type);
+        }
+        return codec;
+    }
+
+    // Car: passengers
+    private static class CarCodec implements Codec {
+        @Override
+        public int extraFields() {
+            return 1;
+        }
+
+        @Override
+        public void writeExtra(Vehicle v, VehicleCsvWriter row) {
+            row.field(((Car) v).getCurrentPassengers());
+        }
+
+        @Override
+        public Vehicle read(VehicleCsvCodec.Fields row, int index, String id, String model, double maxSpeed) throws Exception {
+            Car car = new Car(id, model, maxSpeed);
+            car.setCurrentPassengers(row.intField(index));
+            return car;
+        }
+
+        @Override
+        public int extraBytes() {
+            return 8;
+        }
+
+        @Override
+        public void writeRecord(Vehicle v, ByteBuffer out) {
+            out.putInt(((Car) v).getCurrentPassengers());
+            out.putInt(0);
+        }
+
+        @Override
+        public Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception {
+            Car car = new Car(id, model, maxSpeed);
+            car.setCurrentPassengers(in.getInt(at));
+            return car;
+        }
+    }
+
+    // Truck: cargo
+    private static class TruckCodec implements Codec {
+        @Override
+        public int extraFields() {
+            return 1;
+        }
+
+        @Override
+        public void writeExtra(Vehicle v, VehicleCsvWriter row) {
+            row.field(((Truck) v).getCurrentCargo());
+        }
+
+        @Override
+        public Vehicle read(VehicleCsvCodec.Fields row, int index, String id, String model, double maxSpeed) throws Exception {
+            Truck truck = new Truck(id, model, maxSpeed);
+            truck.setCurrentCargo(row.doubleField(index));
+            return truck;
+        }
+
+        @Override
+        public int extraBytes() {
+            return 8;
+        }
+
+        @Override
+        public void writeRecord(Vehicle v, ByteBuffer out) {
+            out.putDouble(((Truck) v).getCurrentCargo());
+        }
+
+        @Override
+        public Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception {
+            Truck truck = new Truck(id, model, maxSpeed);
+            truck.setCurrentCargo(in.getDouble(at));
+            return truck;
+        }
+    }
+
+    // Bus: passengers, cargo
+    private static class BusCodec implements Codec {
+        @Override
+        public int extraFields() {
+            return 2;
+        }
+
+        @Override
+        public void writeExtra(Vehicle v, VehicleCsvWriter row) {
+            Bus bus = (Bus) v;
+            row.field(bus.getCurrentPassengers());
+            row.field(bus.getCurrentCargo());
+        }
+
+        @Override
+        public Vehicle read(VehicleCsvCodec.Fields row, int index, String id, String model, double maxSpeed) throws Exception {
+            Bus bus = new Bus(id, model, maxSpeed);
+            bus.setCurrentPassengers(row.intField(index));
+            bus.setCurrentCargo(row.doubleField(index + 1));
+            return bus;
+        }
+
+        @Override
+        public int extraBytes() {
+            return 16;
+        }
+
+        @Override
+        public void writeRecord(Vehicle v, ByteBuffer out) {
+            Bus bus = (Bus) v;
+            out.putDouble(bus.getCurrentCargo());
+            out.putInt(bus.getCurrentPassengers());
+            out.putInt(0);
+        }
+
+        @Override
+        public Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception {
+            Bus bus = new Bus(id, model, maxSpeed);
+            bus.setCurrentCargo(in.getDouble(at));
+            bus.setCurrentPassengers(in.getInt(at + 8));
+            return bus;
+        }
+    }
+
+    // Airplane: max altitude, passengers, cargo
+    private static class AirplaneCodec implements Codec {
+        @Override
+        public int extraFields() {
+            return 3;
+        }
+
+        @Override
+        public void writeExtra(Vehicle v, VehicleCsvWriter row) {
+            Airplane airplane = (Airplane) v;
+            row.field(airplane.getMaxAltitude());
+            row.field(airplane.getCurrentPassengers());
+            row.field(airplane.getCurrentCargo());
+        }
+
+        @Override
+        public Vehicle read(VehicleCsvCodec.Fields row, int index, String id, String model, double maxSpeed) throws Exception {
+            double maxAltitude = row.doubleField(index);
+            Airplane airplane = new Airplane(id, model, maxSpeed, maxAltitude);
+            airplane.setCurrentPassengers(row.intField(index + 1));
+            airplane.setCurrentCargo(row.doubleField(index + 2));
+            return airplane;
+        }
+
+        @Override
+        public int extraBytes() {
+            return 24;
+        }
+
+        @Override
+        public void writeRecord(Vehicle v, ByteBuffer out) {
+            Airplane airplane = (Airplane) v;
+            out.putDouble(airplane.getMaxAltitude());
+            out.putDouble(airplane.getCurrentCargo());
+            out.putInt(airplane.getCurrentPassengers());
+            out.putInt(0);
+        }
+
+        @Override
+        public Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception {
+            Airplane airplane = new Airplane(id, model, maxSpeed, in.getDouble(at));
+            airplane.setCurrentCargo(in.getDouble(at + 8));
+            airplane.setCurrentPassengers(in.getInt(at + 16));
+            return airplane;
+        }
+    }
+
+    // CargoShip: has sail, cargo
+    private static class CargoShipCodec implements Codec {
+        @Override
+        public int extraFields() {
+            return 2;
+        }
+
+        @Override
+        public void writeExtra(Vehicle v, VehicleCsvWriter row) {
+            CargoShip ship = (CargoShip) v;
+            row.field(ship.hasSail());
+            row.field(ship.getCurrentCargo());
+        }
+
+        @Override
+        public Vehicle read(VehicleCsvCodec.Fields row, int index, String id, String model, double maxSpeed) throws Exception {
+            boolean hasSail = row.booleanField(index);
+            CargoShip ship = new CargoShip(id, model, maxSpeed, hasSail);
+            ship.setCurrentCargo(row.doubleField(index + 1));
+            return ship;
+        }
+
+        @Override
+        public int extraBytes() {
+            return 16;
+        }
+
+        @Override
+        public void writeRecord(Vehicle v, ByteBuffer out) {
+            CargoShip ship = (CargoShip) v;
+            out.putDouble(ship.getCurrentCargo());
+            out.putInt(ship.hasSail() ? 1 : 0);
+            out.putInt(0);
+        }
+
+        @Override
+        public Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception {
+            CargoShip ship = new CargoShip(id, model, maxSpeed, in.getInt(at + 8) != 0);
+            ship.setCurrentCargo(in.getDouble(at));
+            return ship;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+
+/**
+Reads and writes the CSV columns that only one vehicle type has
+(everything after column 8). One codec per VehicleType, see VehicleCodecs.
+ */
+interface VehicleCsvCodec {
+    // How many type-specific columns the row has
+    int extraFields();
+
+    // Appends the type-specific columns to the row being built
+    void writeExtra(Vehicle v, VehicleCsvWriter row);
+
+    // Builds the vehicle from its parsed common values and the row's columns from index on
+    Vehicle read(Fields row, int index, String id, String model, double maxSpeed) throws Exception;
+
+    // The columns of one row, parsed on demand, so a reader can work from split Strings or raw bytes
+    interface Fields {
+        int intField(int index);
+
+        double doubleField(int index);
+
+        boolean booleanField(int index);
+    }
+
+    // Columns of a row already split into Strings, parsed with the java.lang rules
+    final class SplitFields implements Fields {
+        private final String[] data;
+
+        SplitFields(String[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int intField(int index) {
+            return Integer.parseInt(data[index].trim());
+        }
+
+        @Override
+        public double doubleField(int index) {
+            return Double.parseDouble(data[index].trim());
+        }
+
+        @Override
+        public boolean booleanField(int index) {
+            return Boolean.parseBoolean(data[index].trim());
+        }
+    }
+}
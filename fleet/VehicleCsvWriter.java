@@ -0,0 +1,116 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+Turns vehicles into CSV rows (the format loadFromFile reads) without making
+a String per field or per row. Each row is built in one reused StringBuilder
+and copied into a fixed char buffer that is written out when it fills up.
+Columns:
+0-Type, 1-ID, 2-Model, 3-MaxSpeed, 4-Mileage, 5-Efficiency,
+6-FuelLevel, 7-MaintenanceNeeded, 8-MileageAtLastService,
+9+ (type-specific columns, written by the type's VehicleCsvCodec)
+ */
+class VehicleCsvWriter {
+    private static final int BUFFER_SIZE = 8192;
+    // Whole numbers below this print as "123.0" in Double.toString, above it in E notation
+    private static final double PLAIN_LIMIT = 1e7;
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(128);
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int buffered;
+
+    // out may be null when only format() is used
+    VehicleCsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    // Adds one row and a line break
+    void write(Vehicle v) throws IOException {
+        appendRow(v);
+        row.append(NEWLINE);
+        int length = row.length();
+        int start = 0;
+        while (start < length) {
+            if (buffered == buffer.length) {
+                flushBuffer();
+            }
+            int count = Math.min(length - start, buffer.length - buffered);
+            row.getChars(start, start + count, buffer, buffered);
+            buffered += count;
+            start += count;
+        }
+        row.setLength(0);
+    }
+
+    // The row for one vehicle as a String, without a line break
+    String format(Vehicle v) {
+        appendRow(v);
+        String text = row.toString();
+        row.setLength(0);
+        return text;
+    }
+
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void appendRow(Vehicle v) {
+        row.append(v.getType().getDisplayName());
+        field(v.getId());
+        field(v.getModel());
+        field(v.getMaxSpeed());
+        field(v.getCurrentMileage());
+        field(v.calculateFuelEfficiency());
+        field((v instanceof FuelConsumable) ? ((FuelConsumable) v).getFuelLevel() : 0.0);
+        if (v instanceof Maintainable) {
+            Maintainable m = (Maintainable) v;
+            field(m.isMaintenanceNeeded());
+            field(m.getMileageAtLastService());
+        } else {
+            field(false);
+            field(0.0);
+        }
+        VehicleCodecs.forType(v.getType()).writeExtra(v, this);
+    }
+
+    // --- FIELDS (each one starts with the separator) ---
+
+    void field(String value) {
+        row.append(',').append(value);
+    }
+
+    void field(int value) {
+        row.append(',').append(value);
+    }
+
+    void field(boolean value) {
+        row.append(',').append(value);
+    }
+
+    // Same text as String.valueOf(double); whole numbers skip the general algorithm
+    void field(double value) {
+        row.append(',');
+        if (value == (long) value && Math.abs(value) < PLAIN_LIMIT
+                && !(value == 0.0 && 1 / value < 0)) {
+            row.append((long) value).append(".0");
+        } else {
+            row.append(value);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffered > 0) {
+            out.write(buffer, 0, buffered);
+            buffered = 0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+Keeps vehicles ordered by some key (mileage, speed, ...) in a TreeMap,
+so range queries and sorted listings don't have to scan or sort the fleet.
+It also remembers each vehicle's current key so the vehicle can be moved
+when that value changes.
+ */
+class VehicleIndex<K> {
+    private final Comparator<? super K> comparator;
+    private final NavigableMap<K, Set<Vehicle>> vehiclesByKey;
+    private final Map<Vehicle, K> keyOfVehicle;
+
+    VehicleIndex(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        this.vehiclesByKey = new TreeMap<>(comparator);
+        this.keyOfVehicle = new HashMap<>();
+    }
+
+    // Adds the vehicle, or moves it if it is already indexed under another key
+    void put(Vehicle v, K key) {
+        K oldKey = keyOfVehicle.put(v, key);
+        if (oldKey != null) {
+            if (comparator.compare(oldKey, key) == 0) {
+                return;
+            }
+            removeFromBucket(oldKey, v);
+        }
+        vehiclesByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(v);
+    }
+
+    void remove(Vehicle v) {
+        K oldKey = keyOfVehicle.remove(v);
+        if (oldKey != null) {
+            removeFromBucket(oldKey, v);
+        }
+    }
+
+    private void removeFromBucket(K key, Vehicle v) {
+        Set<Vehicle> bucket = vehiclesByKey.get(key);
+        if (bucket != null) {
+            bucket.remove(v);
+            if (bucket.isEmpty()) {
+                vehiclesByKey.remove(key);
+            }
+        }
+    }
+
+    void clear() {
+        vehiclesByKey.clear();
+        keyOfVehicle.clear();
+    }
+
+    int size() {
+        return keyOfVehicle.size();
+    }
+
+    boolean contains(Vehicle v) {
+        return keyOfVehicle.containsKey(v);
+    }
+
+    K keyOf(Vehicle v) {
+        return keyOfVehicle.get(v);
+    }
+
+    // Vehicles with keys between from and to, in ascending key order
+    List<Vehicle> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        if (comparator.compare(from, to) > 0) {
+            return new ArrayList<>();
+        }
+        return flatten(vehiclesByKey.subMap(from, fromInclusive, to, toInclusive).values());
+    }
+
+    // Vehicles with keys below (or up to) the given key, in ascending key order
+    List<Vehicle> below(K to, boolean inclusive) {
+        return flatten(vehiclesByKey.headMap(to, inclusive).values());
+    }
+
+    // Vehicles with keys above (or from) the given key, in ascending key order
+    List<Vehicle> above(K from, boolean inclusive) {
+        return flatten(vehiclesByKey.tailMap(from, inclusive).values());
+    }
+
+    List<Vehicle> ascending() {
+        return flatten(vehiclesByKey.values());
+    }
+
+    List<Vehicle> descending() {
+        return flatten(vehiclesByKey.descendingMap().values());
+    }
+
+    // Vehicle with the smallest key, or null if the index is empty
+    Vehicle first() {
+        return vehiclesByKey.isEmpty() ? null : vehiclesByKey.firstEntry().getValue().iterator().next();
+    }
+
+    // Vehicle with the largest key, or null if the index is empty
+    Vehicle last() {
+        return vehiclesByKey.isEmpty() ? null : vehiclesByKey.lastEntry().getValue().iterator().next();
+    }
+
+    // Largest key, or null if the index is empty
+    K lastKey() {
+        return vehiclesByKey.isEmpty() ? null : vehiclesByKey.lastKey();
+    }
+
+    // Walks all vehicles in ascending key order without copying them into a list
+    Iterator<Vehicle> iterator() {
+        return lazyFlatten(vehiclesByKey.values());
+    }
+
+    // Walks the vehicles with keys at or above `from`, in ascending key order
+    Iterator<Vehicle> iteratorFrom(K from) {
+        return lazyFlatten(vehiclesByKey.tailMap(from, true).values());
+    }
+
+    private static Iterator<Vehicle> lazyFlatten(Collection<Set<Vehicle>> buckets) {
+        Iterator<Set<Vehicle>> outer = buckets.iterator();
+        return new Iterator<Vehicle>() {
+            private Iterator<Vehicle> inner = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!inner.hasNext() && outer.hasNext()) {
+                    inner = outer.next().iterator();
+                }
+                return inner.hasNext();
+            }
+
+            @Override
+            public Vehicle next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return inner.next();
+            }
+        };
+    }
+
+    private static List<Vehicle> flatten(Collection<Set<Vehicle>> buckets) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Set<Vehicle> bucket : buckets) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
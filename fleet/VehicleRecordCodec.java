@@ -0,0 +1,21 @@
+package fleet;
+
+import vehicles.abstracts.Vehicle;
+
+import java.nio.ByteBuffer;
+
+/**
+Reads and writes the fixed-width binary fields that only one vehicle type has,
+for the snapshot format (see FleetSnapshot). The width must stay the same for
+every vehicle of the type so records can be addressed by index.
+ */
+interface VehicleRecordCodec {
+    // Width of the type-specific part of each record, a multiple of 8
+    int extraBytes();
+
+    // Puts exactly extraBytes() bytes at the buffer's position
+    void writeRecord(Vehicle v, ByteBuffer out);
+
+    // Builds the vehicle from its common values and the type-specific bytes starting at `at`
+    Vehicle readRecord(ByteBuffer in, int at, String id, String model, double maxSpeed) throws Exception;
+}
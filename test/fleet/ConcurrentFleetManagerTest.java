@@ -0,0 +1,266 @@
+package fleet;
+
+import events.Events;
+import events.QuietEventSink;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.abstracts.Vehicle;
+import vehicles.concrete.Bus;
+import vehicles.concrete.Car;
+import vehicles.concrete.Truck;
+import vehicles.interfaces.FuelConsumable;
+import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.VehicleListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+Checks that ConcurrentFleetManager's single-vehicle operations on different
+stripes really run at the same time, and that the fleet's indexes and totals
+are right once they are done. Plain main(), no test framework needed:
+javac -d out $(find . -name "*.java") && java -cp out fleet.ConcurrentFleetManagerTest
+ */
+public class ConcurrentFleetManagerTest {
+    public static void main(String[] args) throws Exception {
+        Events.setSink(new QuietEventSink());
+        stripesAreInsideTheFleetAtTheSameTime();
+        otherStripesKeepGoingWhileOneIsStuck();
+        indexesCatchUpAfterConcurrentChanges();
+        System.out.println("ConcurrentFleetManagerTest passed");
+    }
+
+    // Two threads on different stripes both get into the fleet's change callback before either
+    // leaves it, which a fleet-wide lock around the callback would make impossible
+    private static void stripesAreInsideTheFleetAtTheSameTime() throws Exception {
+        FleetManager fleet = new FleetManager();
+        CountDownLatch inside = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        fleet.setFleetListener(new BlockingListener(inside, release, null));
+        ConcurrentFleetManager manager = new ConcurrentFleetManager(fleet);
+        String[] ids = idsOnDifferentStripes(manager, 2);
+        for (String id : ids) {
+            manager.addVehicle(new Car(id, "Camry", 180));
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (String id : ids) {
+            threads.add(start(() -> manager.refuel(id, 10)));
+        }
+        boolean together = inside.await(10, TimeUnit.SECONDS);
+        release.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        check(together, "refuels on two stripes should be inside the fleet at the same time");
+        double fuel = manager.withExclusiveAccess(FleetManager::getTotalFuel);
+        check(fuel == 20, "both refuels should be in the fuel total, got " + fuel);
+    }
+
+    // While one vehicle's change is stuck in the fleet listener, vehicles on other stripes
+    // can still be changed as often as we like
+    private static void otherStripesKeepGoingWhileOneIsStuck() throws Exception {
+        FleetManager fleet = new FleetManager();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        fleet.setFleetListener(new BlockingListener(inside, release, "STUCK"));
+        ConcurrentFleetManager manager = new ConcurrentFleetManager(fleet);
+        manager.addVehicle(new Car("STUCK", "Camry", 180));
+        List<String> others = new ArrayList<>();
+        for (int i = 0; others.size() < 20; i++) {
+            String id = "C" + i;
+            if (manager.stripeOf(id) != manager.stripeOf("STUCK")) {
+                manager.addVehicle(new Car(id, "Camry", 180));
+                others.add(id);
+            }
+        }
+
+        Thread stuck = start(() -> manager.refuel("STUCK", 10));
+        check(inside.await(10, TimeUnit.SECONDS), "the stuck refuel never reached the listener");
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> done = worker.submit(() -> {
+                for (int round = 0; round < 1000; round++) {
+                    for (String id : others) {
+                        manager.refuel(id, 1);
+                        manager.move(id, 1);
+                    }
+                }
+                return null;
+            });
+            done.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            stuck.join();
+            worker.shutdown();
+        }
+        double mileage = manager.withExclusiveAccess(FleetManager::getTotalMileage);
+        check(mileage == 20 * 1000, "every move should be in the mileage total, got " + mileage);
+    }
+
+    // Random operations from several threads, then the indexes and totals are compared
+    // with what the vehicles themselves hold
+    private static void indexesCatchUpAfterConcurrentChanges() throws Exception {
+        ConcurrentFleetManager manager = new ConcurrentFleetManager();
+        int vehicles = 3000;
+        for (int i = 0; i < vehicles; i++) {
+            switch (i % 3) {
+                case 0: manager.addVehicle(new Car("C" + i, "Camry", 180)); break;
+                case 1: manager.addVehicle(new Truck("T" + i, "Volvo", 120)); break;
+                default: manager.addVehicle(new Bus("B" + i, "City", 90)); break;
+            }
+        }
+        int threads = 8;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers.add(start(() -> {
+                Random random = new Random(seed);
+                for (int op = 0; op < 20000; op++) {
+                    int i = random.nextInt(vehicles);
+                    String id = ((i % 3 == 0) ? "C" : (i % 3 == 1) ? "T" : "B") + i;
+                    try {
+                        switch (random.nextInt(5)) {
+                            case 0: manager.refuel(id, 1 + random.nextInt(50)); break;
+                            case 1: manager.move(id, 1 + random.nextInt(400)); break;
+                            case 2:
+                                if (i % 3 == 0) manager.boardPassengers(id, 1);
+                                else manager.loadCargo(id, 1 + random.nextInt(300));
+                                break;
+                            case 3:
+                                if (i % 3 == 0) manager.disembarkPassengers(id, 1);
+                                else manager.unloadCargo(id, 1 + random.nextInt(300));
+                                break;
+                            default: manager.performMaintenance(id); break;
+                        }
+                    } catch (InvalidOperationException | OverloadException e) {
+                        // full, empty or not that kind of vehicle, fine for this test
+                    }
+                }
+            }));
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+
+        manager.withExclusiveAccess(fleet -> {
+            double mileage = 0, fuel = 0, cargo = 0;
+            long passengers = 0;
+            List<Vehicle> due = new ArrayList<>();
+            for (Vehicle v : fleet.vehicles()) {
+                mileage += v.getCurrentMileage();
+                fuel += ((FuelConsumable) v).getFuelLevel();
+                if (v instanceof vehicles.interfaces.CargoCarrier) {
+                    cargo += ((vehicles.interfaces.CargoCarrier) v).getCurrentCargo();
+                }
+                if (v instanceof vehicles.interfaces.PassengerCarrier) {
+                    passengers += ((vehicles.interfaces.PassengerCarrier) v).getCurrentPassengers();
+                }
+                if (((Maintainable) v).needsMaintenance()) {
+                    due.add(v);
+                }
+            }
+            checkClose(fleet.getTotalMileage(), mileage, "total mileage");
+            checkClose(fleet.getTotalFuel(), fuel, "total fuel");
+            checkClose(fleet.getTotalCargo(), cargo, "total cargo");
+            check(fleet.getTotalPassengers() == passengers, "total passengers");
+            check(fleet.getVehiclesNeedingMaintenance().size() == due.size(), "vehicles needing maintenance");
+            checkSorted(fleet.getVehiclesSortedByMileage(), vehicles, v -> v.getCurrentMileage(), "mileage index");
+            checkSorted(fleet.getVehiclesSortedByFuelLevel(), vehicles, v -> ((FuelConsumable) v).getFuelLevel(), "fuel index");
+            return null;
+        });
+    }
+
+    private interface Key {
+        double of(Vehicle v);
+    }
+
+    private static void checkSorted(List<Vehicle> listed, int expectedSize, Key key, String what) {
+        check(listed.size() == expectedSize, what + " lists " + listed.size() + " vehicles, expected " + expectedSize);
+        for (int i = 1; i < listed.size(); i++) {
+            check(key.of(listed.get(i - 1)) <= key.of(listed.get(i)), what + " is out of order at " + i);
+        }
+    }
+
+    private static String[] idsOnDifferentStripes(ConcurrentFleetManager manager, int count) {
+        String[] ids = new String[count];
+        List<Integer> used = new ArrayList<>();
+        for (int i = 0, found = 0; found < count; i++) {
+            String id = "V" + i;
+            if (!used.contains(manager.stripeOf(id))) {
+                used.add(manager.stripeOf(id));
+                ids[found++] = id;
+            }
+        }
+        return ids;
+    }
+
+    // Holds every vehicle change (or only the one for `onlyId`) in the listener until released
+    private static final class BlockingListener implements FleetListener {
+        private final CountDownLatch inside;
+        private final CountDownLatch release;
+        private final String onlyId;
+
+        BlockingListener(CountDownLatch inside, CountDownLatch release, String onlyId) {
+            this.inside = inside;
+            this.release = release;
+            this.onlyId = onlyId;
+        }
+
+        @Override
+        public void vehicleChanged(Vehicle vehicle, VehicleListener.Change change) {
+            if (onlyId != null && !onlyId.equals(vehicle.getId())) return;
+            inside.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void vehicleAdded(Vehicle vehicle) {
+        }
+
+        @Override
+        public void vehicleRemoved(Vehicle vehicle) {
+        }
+
+        @Override
+        public void fleetCleared() {
+        }
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static Thread start(Body body) {
+        Thread t = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        t.start();
+        return t;
+    }
+
+    private static void checkClose(double actual, double expected, String what) {
+        check(Math.abs(actual - expected) <= 1e-6 * Math.max(1, Math.abs(expected)),
+                what + " is " + actual + ", expected " + expected);
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package fleet;
+
+import events.Events;
+import events.QuietEventSink;
+import exceptions.InvalidOperationException;
+import vehicles.abstracts.Vehicle;
+import vehicles.concrete.Bus;
+import vehicles.concrete.Car;
+import vehicles.concrete.CargoShip;
+import vehicles.concrete.Truck;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+Checks that what FleetJournal records comes back when the journal is opened
+again: after a clean close, after a crash that tore the last entry, and after
+compactions that ran while other threads kept changing the fleet.
+Plain main(), no test framework needed:
+javac -d out $(find . -name "*.java") && java -cp out fleet.FleetJournalTest
+ */
+public class FleetJournalTest {
+    public static void main(String[] args) throws Exception {
+        Events.setSink(new QuietEventSink());
+        changesComeBackAfterReopening();
+        tornLastEntryIsDropped();
+        compactionKeepsUpWithConcurrentChanges();
+        System.out.println("FleetJournalTest passed");
+    }
+
+    // Adds, removes and changes of every kind survive close and reopen
+    private static void changesComeBackAfterReopening() throws Exception {
+        Path dir = Files.createTempDirectory("journal-roundtrip");
+        try {
+            FleetManager fleet = sampleFleet();
+            FleetJournal journal = open(fleet, dir, 1 << 20);
+            fleet.refuelAll(40);
+            fleet.startAllJourneys(120);
+            ((Truck) fleet.getVehicle("T1")).loadCargo(500);
+            ((Bus) fleet.getVehicle("B1")).boardPassengers(12);
+            ((Car) fleet.getVehicle("C1")).performMaintenance();
+            fleet.addVehicle(new Car("C9", "Golf", 170));
+            fleet.removeVehicle("C2");
+            ((Car) fleet.getVehicle("C9")).refuel(25);
+            String expected = state(fleet);
+            journal.close();
+
+            FleetManager reopened = new FleetManager();
+            FleetJournal again = open(reopened, dir, 1 << 20);
+            check(again.getReplayedEntries() > 0, "nothing was replayed");
+            check(state(reopened).equals(expected), "reopened fleet differs:\n" + state(reopened) + "\nexpected:\n" + expected);
+            again.close();
+        } finally {
+            delete(dir);
+        }
+    }
+
+    // A crash in the middle of the last write loses only that entry
+    private static void tornLastEntryIsDropped() throws Exception {
+        Path dir = Files.createTempDirectory("journal-torn");
+        try {
+            FleetManager fleet = sampleFleet();
+            FleetJournal journal = open(fleet, dir, 1 << 20);
+            fleet.refuelAll(30);
+            fleet.getVehicle("C1").move(50);
+            journal.sync();
+            String beforeLastEntry = state(fleet);
+            fleet.getVehicle("C1").setMileage(9999);
+            journal.close();
+
+            Path last = lastSegment(dir);
+            try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+            FleetManager reopened = new FleetManager();
+            FleetJournal again = open(reopened, dir, 1 << 20);
+            check(state(reopened).equals(beforeLastEntry), "torn entry was not dropped cleanly:\n" + state(reopened));
+            // the torn tail is overwritten by new entries, nothing after it is lost
+            reopened.getVehicle("C1").setMileage(1234);
+            String expected = state(reopened);
+            again.close();
+            FleetManager third = new FleetManager();
+            open(third, dir, 1 << 20).close();
+            check(state(third).equals(expected), "entries after a torn one were lost:\n" + state(third));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    // Several threads keep changing vehicles while a small segment limit makes the journal
+    // start one compaction after another; the final state must still come back
+    private static void compactionKeepsUpWithConcurrentChanges() throws Exception {
+        Path dir = Files.createTempDirectory("journal-compact");
+        try {
+            FleetManager fleet = new FleetManager();
+            int vehicles = 400;
+            for (int i = 0; i < vehicles; i++) {
+                fleet.addVehicle((i % 2 == 0) ? new Car("C" + i, "Camry", 180) : new Truck("T" + i, "Volvo", 120));
+            }
+            FleetJournal journal = open(fleet, dir, 16 * 1024);
+            ConcurrentFleetManager manager = new ConcurrentFleetManager(fleet);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                Thread worker = new Thread(() -> {
+                    Random random = new Random(seed);
+                    for (int op = 0; op < 20000; op++) {
+                        int i = random.nextInt(vehicles);
+                        String id = ((i % 2 == 0) ? "C" : "T") + i;
+                        try {
+                            if (random.nextBoolean()) {
+                                manager.refuel(id, 1 + random.nextInt(20));
+                            } else {
+                                manager.move(id, 1 + random.nextInt(100));
+                            }
+                        } catch (InvalidOperationException e) {
+                            // out of fuel, fine for this test
+                        }
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            String expected = manager.withExclusiveAccess(FleetJournalTest::state);
+            journal.close();
+            check(segments(dir).size() < 10, "old segments were not folded away: " + segments(dir));
+
+            FleetManager reopened = new FleetManager();
+            open(reopened, dir, 16 * 1024).close();
+            check(state(reopened).equals(expected), "fleet after compactions differs from the live one");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static FleetManager sampleFleet() throws InvalidOperationException {
+        FleetManager fleet = new FleetManager();
+        fleet.addVehicle(new Car("C1", "Camry", 180));
+        fleet.addVehicle(new Car("C2", "Civic", 175));
+        fleet.addVehicle(new Truck("T1", "Volvo FH16", 140));
+        fleet.addVehicle(new Bus("B1", "Citaro", 100));
+        fleet.addVehicle(new CargoShip("S1", "Maersk", 40, true));
+        return fleet;
+    }
+
+    private static FleetJournal open(FleetManager fleet, Path dir, long compactAfterBytes) throws IOException {
+        return FleetJournal.open(fleet, dir.resolve("fleet.snap").toString(), dir.resolve("fleet.journal").toString(),
+                compactAfterBytes, 0);
+    }
+
+    // Every vehicle as its CSV row, sorted so the order vehicles were restored in doesn't matter
+    private static String state(FleetManager fleet) {
+        List<String> rows = new ArrayList<>();
+        for (Vehicle v : fleet.vehicles()) {
+            StringWriter out = new StringWriter();
+            try {
+                VehicleCsvWriter csv = new VehicleCsvWriter(out);
+                csv.write(v);
+                csv.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows.add(out.toString().trim());
+        }
+        Collections.sort(rows);
+        return String.join("\n", rows);
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("fleet.journal."))
+                    .sorted(Comparator.comparingInt(FleetJournalTest::segmentNumber))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Path lastSegment(Path dir) throws IOException {
+        List<Path> all = segments(dir);
+        return all.get(all.size() - 1);
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -5,6 +5,15 @@ import exceptions.InvalidOperationException;
 public abstract class AirVehicle extends Vehicle {
     private double maxAltitude;
 
+    public AirVehicle(String id, VehicleSpec spec, double maxSpeed, double maxAltitude) throws InvalidOperationException {
+        super(id, spec, maxSpeed);
+        this.maxAltitude = maxAltitude;
+    }
+
+    /**
+     * @deprecated use AirVehicle(String, VehicleSpec, double, double) with a spec from SpecCatalog.
+     */
+    @Deprecated
     public AirVehicle(String id, String model, double maxSpeed, double maxAltitude) throws InvalidOperationException {
         super(id, model, maxSpeed);
         this.maxAltitude = maxAltitude;
@@ -12,7 +21,12 @@ public abstract class AirVehicle extends Vehicle {
     
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / this.maxSpeed;
+        return journeyTime(distance, getMaxSpeed());
+    }
+
+    // Journey time of any air vehicle, also used by vehicles stored off-heap
+    public static double journeyTime(double distance, double maxSpeed) {
+        double baseTime = distance / maxSpeed;
         return baseTime * 0.95; // Reduce 5% for direct paths
     }
     
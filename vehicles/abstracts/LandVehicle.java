@@ -5,6 +5,15 @@ import exceptions.InvalidOperationException;
 public abstract class LandVehicle extends Vehicle {
     private int numWheels;
 
+    public LandVehicle(String id, VehicleSpec spec, double maxSpeed) throws InvalidOperationException {
+        super(id, spec, maxSpeed);
+        this.numWheels = spec.getNumWheels();
+    }
+
+    /**
+     * @deprecated use LandVehicle(String, VehicleSpec, double), the wheel count comes with the type.
+     */
+    @Deprecated
     public LandVehicle(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
         super(id, model, maxSpeed);
         this.numWheels = numWheels;
@@ -12,7 +21,12 @@ public abstract class LandVehicle extends Vehicle {
 
     @Override
     public double estimateJourneyTime(double distance) {
-        return (distance / this.maxSpeed) * 1.1; // Add 10% for traffic
+        return journeyTime(distance, getMaxSpeed());
+    }
+
+    // Journey time of any land vehicle, also used by vehicles stored off-heap
+    public static double journeyTime(double distance, double maxSpeed) {
+        return (distance / maxSpeed) * 1.1; // Add 10% for traffic
     }
 
     public int getNumWheels() {
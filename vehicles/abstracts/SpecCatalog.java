@@ -0,0 +1,104 @@
+package vehicles.abstracts;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+Process-wide catalog of vehicle specs, one per type and model, shared by every
+vehicle of that model. The first model String seen becomes the one all those
+vehicles return, so a fleet loaded from CSV keeps one copy of "Toyota Camry"
+instead of one per row.
+
+The catalog only holds its specs weakly: once no vehicle uses a model any more,
+the spec is collected and its entry dropped, so a long-running process doesn't
+keep every model it has ever seen.
+Safe to use from several threads, the parallel loaders build vehicles concurrently.
+ */
+public final class SpecCatalog {
+    private static final ConcurrentHashMap<Key, SpecRef> specs = new ConcurrentHashMap<>();
+    // Specs that were collected, their entries are removed on the next lookup
+    private static final ReferenceQueue<VehicleSpec> collected = new ReferenceQueue<>();
+
+    private static final class Key {
+        final VehicleType type;
+        final String model;
+        final int hash;
+
+        Key(VehicleType type, String model) {
+            this.type = type;
+            this.model = model;
+            this.hash = Objects.hash(type, model);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return type == other.type && Objects.equals(model, other.model);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class SpecRef extends WeakReference<VehicleSpec> {
+        final Key key;
+
+        SpecRef(VehicleSpec spec, Key key) {
+            super(spec, collected);
+            this.key = key;
+        }
+    }
+
+    private SpecCatalog() {
+    }
+
+    // Returns the shared spec for this type and model, adding it on first use
+    public static VehicleSpec spec(VehicleType type, String model) {
+        dropCollected();
+        Key key = new Key(type, model);
+        SpecRef ref = specs.get(key);
+        VehicleSpec spec = (ref == null) ? null : ref.get();
+        while (spec == null) {
+            SpecRef fresh = new SpecRef(new VehicleSpec(type, model), key);
+            SpecRef current = specs.compute(key, (k, old) -> (old != null && old.get() != null) ? old : fresh);
+            // null only if the existing spec was collected right after compute kept it, then try again
+            spec = current.get();
+        }
+        return spec;
+    }
+
+    private static void dropCollected() {
+        Reference<? extends VehicleSpec> ref;
+        while ((ref = collected.poll()) != null) {
+            specs.remove(((SpecRef) ref).key, ref);
+        }
+    }
+
+    // Number of specs still in use
+    public static int size() {
+        dropCollected();
+        return specs.size();
+    }
+
+    public static Collection<VehicleSpec> specs() {
+        dropCollected();
+        List<VehicleSpec> live = new ArrayList<>(specs.size());
+        for (SpecRef ref : specs.values()) {
+            VehicleSpec spec = ref.get();
+            if (spec != null) {
+                live.add(spec);
+            }
+        }
+        return Collections.unmodifiableList(live);
+    }
+}
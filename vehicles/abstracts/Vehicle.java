@@ -1,40 +1,82 @@
 package vehicles.abstracts;
 
+import events.Events;
+import events.FleetEvent;
 import exceptions.InvalidOperationException;
+import vehicles.interfaces.VehicleListener;
 
 public abstract class Vehicle implements Comparable<Vehicle> {
 
     private String id;
-    private String model;
+    // Model and the type's constants, shared with every vehicle of the same type and model
+    private VehicleSpec spec;
     protected double maxSpeed;
     private double currentMileage;
+    private VehicleListener listener;
 
-    public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
+    public Vehicle(String id, VehicleSpec spec, double maxSpeed) throws InvalidOperationException {
         // as mentioned to check id not null
         if(id==null || id.isEmpty()){
             throw new InvalidOperationException("Id cannot be null or empty");
         }
+        // the model index, snapshots and the JSON report all need a model name
+        if (spec != null && spec.getModel() == null) {
+            throw new InvalidOperationException("Model cannot be null");
+        }
 
         this.id = id;
-        this.model = model;
+        this.spec = spec;
         this.maxSpeed = maxSpeed;
         this.currentMileage = 0.0;
         // its been told to init to 0.0
     }
 
+    /**
+     * @deprecated use Vehicle(String, VehicleSpec, double) with a spec from SpecCatalog.
+     * The type isn't known yet here, so the shared spec is looked up on the first getSpec().
+     */
+    @Deprecated
+    public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
+        this(id, new VehicleSpec(null, model), maxSpeed);
+    }
+
+    // For flyweight views that override getSpec() and the getters that read it
+    protected Vehicle(String id) throws InvalidOperationException {
+        this(id, (VehicleSpec) null, 0);
+    }
+
+
+    // Result codes for tryMove
+    public static final int MOVE_OK = 0;
+    public static final int MOVE_INVALID_DISTANCE = 1;
+    public static final int MOVE_NO_FUEL = 2;
 
     public abstract void move(double distance) throws InvalidOperationException;
     // cant put < 0 here, so ill put in all submethods
 
+    // Same as move() but returns a MOVE_* code instead of throwing or printing
+    public abstract int tryMove(double distance);
+
     public abstract double calculateFuelEfficiency();
     public abstract double estimateJourneyTime(double distance);
+    public abstract VehicleType getType();
+
+    // Text for an event this vehicle published, only called when a sink actually shows it
+    public String describeEvent(FleetEvent event, double value, double detail) {
+        switch (event) {
+            case ADDED: return "Vehicle " + getId() + " added to the fleet.";
+            case REMOVED: return "Vehicle " + getId() + " removed.";
+            default: return getType() + " " + getId() + ": " + event;
+        }
+    }
     
     
     public void displayInfo(){
-        System.out.println("Vehicle ID: " + id);
-        System.out.println("Model: " + model);
-        System.out.println("Max Speed: " + maxSpeed);
-        System.out.println("Current Mileage: " + currentMileage);
+        if (!Events.isEnabled()) return;
+        Events.info("Vehicle ID: " + getId());
+        Events.info("Model: " + getModel());
+        Events.info("Max Speed: " + getMaxSpeed());
+        Events.info("Current Mileage: " + getCurrentMileage());
     }
 
     public double getCurrentMileage(){
@@ -46,20 +88,45 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     }
 
     public String getModel(){
-        return model;
+        return spec.getModel();
     }
 
     public double getMaxSpeed(){
         return maxSpeed;
     }
 
+    public VehicleSpec getSpec(){
+        if (spec != null && spec.getType() == null) {
+            // built by the deprecated constructor, which couldn't ask for the type yet
+            spec = SpecCatalog.spec(getType(), spec.getModel());
+        }
+        return spec;
+    }
+
     protected void updateMileage(double distance){
         this.currentMileage += distance;
+        notifyChanged(VehicleListener.Change.MILEAGE);
     }
 
     public void setMileage(double mileage) {
         if (mileage >= 0) {
             this.currentMileage = mileage;
+            notifyChanged(VehicleListener.Change.MILEAGE);
+        }
+    }
+
+    // Only one listener at a time, normally the FleetManager that owns this vehicle
+    public void setListener(VehicleListener listener) {
+        this.listener = listener;
+    }
+
+    public VehicleListener getListener() {
+        return listener;
+    }
+
+    protected void notifyChanged(VehicleListener.Change change) {
+        if (listener != null) {
+            listener.vehicleChanged(this, change);
         }
     }
 
@@ -0,0 +1,74 @@
+package vehicles.abstracts;
+
+import java.util.Objects;
+
+/**
+The constant part of a vehicle: its type, model and the figures that come with
+the type. Specs are interned by SpecCatalog, so every vehicle of the same model
+points at one shared instance instead of carrying its own copies.
+Two specs are equal when type and model match. Values that can differ between
+vehicles of one model (max speed, max altitude, sail) stay on the vehicle.
+ */
+public final class VehicleSpec {
+    private final VehicleType type;
+    private final String model;
+    private final int passengerCapacity;
+    private final double cargoCapacity;
+    private final double fuelEfficiency;
+    private final int numWheels;
+    private final int hash;
+
+    // type is null only for the placeholder the deprecated Vehicle constructor makes
+    VehicleSpec(VehicleType type, String model) {
+        this.type = type;
+        this.model = model;
+        this.passengerCapacity = (type == null) ? 0 : type.getPassengerCapacity();
+        this.cargoCapacity = (type == null) ? 0 : type.getCargoCapacity();
+        this.fuelEfficiency = (type == null) ? 0 : type.getFuelEfficiency();
+        this.numWheels = (type == null) ? 0 : type.getNumWheels();
+        this.hash = Objects.hash(type, model);
+    }
+
+    public VehicleType getType() {
+        return type;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    public double getCargoCapacity() {
+        return cargoCapacity;
+    }
+
+    // Base efficiency in km per liter, before load or sail adjustments
+    public double getFuelEfficiency() {
+        return fuelEfficiency;
+    }
+
+    public int getNumWheels() {
+        return numWheels;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VehicleSpec)) return false;
+        VehicleSpec other = (VehicleSpec) o;
+        return type == other.type && Objects.equals(model, other.model);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + model;
+    }
+}
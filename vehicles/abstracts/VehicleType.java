@@ -0,0 +1,64 @@
+package vehicles.abstracts;
+
+// The concrete vehicle kinds, used instead of comparing class names as strings.
+// Also the one place the per-type constants live; each VehicleSpec copies them.
+public enum VehicleType {
+    //          name         passengers  cargo kg  km per L  wheels
+    CAR("Car",               5,          0,        15.0,     4),
+    TRUCK("Truck",           0,          5000,     8.0,      6),
+    BUS("Bus",               50,         500,      10.0,     6),
+    AIRPLANE("Airplane",     200,        10000,    5.0,      0),
+    CARGO_SHIP("CargoShip",  0,          50000,    4.0,      0);
+
+    private final String displayName;
+    private final int passengerCapacity;
+    private final double cargoCapacity;
+    private final double fuelEfficiency;
+    private final int numWheels;
+
+    VehicleType(String displayName, int passengerCapacity, double cargoCapacity, double fuelEfficiency, int numWheels) {
+        this.displayName = displayName;
+        this.passengerCapacity = passengerCapacity;
+        this.cargoCapacity = cargoCapacity;
+        this.fuelEfficiency = fuelEfficiency;
+        this.numWheels = numWheels;
+    }
+
+    public int getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    public double getCargoCapacity() {
+        return cargoCapacity;
+    }
+
+    // Base efficiency in km per liter, before load or sail adjustments
+    public double getFuelEfficiency() {
+        return fuelEfficiency;
+    }
+
+    public int getNumWheels() {
+        return numWheels;
+    }
+
+    // Name used in reports and in the CSV type column
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // Looks up a type by its display name (case-insensitive), returns null if unknown
+    public static VehicleType fromName(String name) {
+        if (name == null) return null;
+        for (VehicleType type : values()) {
+            if (type.displayName.equalsIgnoreCase(name.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
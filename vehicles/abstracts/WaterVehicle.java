@@ -5,6 +5,15 @@ import exceptions.InvalidOperationException;
 public abstract class WaterVehicle extends Vehicle {
     private boolean hasSail;
 
+    public WaterVehicle(String id, VehicleSpec spec, double maxSpeed, boolean hasSail) throws InvalidOperationException {
+        super(id, spec, maxSpeed);
+        this.hasSail = hasSail;
+    }
+
+    /**
+     * @deprecated use WaterVehicle(String, VehicleSpec, double, boolean) with a spec from SpecCatalog.
+     */
+    @Deprecated
     public WaterVehicle(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
         super(id, model, maxSpeed);
         this.hasSail = hasSail;
@@ -12,7 +21,12 @@ public abstract class WaterVehicle extends Vehicle {
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / getMaxSpeed();
+        return journeyTime(distance, getMaxSpeed());
+    }
+
+    // Journey time of any water vehicle, also used by vehicles stored off-heap
+    public static double journeyTime(double distance, double maxSpeed) {
+        double baseTime = distance / maxSpeed;
         return baseTime * 1.15; // Add 15% for currents
     }
 
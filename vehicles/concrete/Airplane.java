@@ -1,6 +1,10 @@
 package vehicles.concrete;
 
+import events.Events;
+import events.FleetEvent;
 import vehicles.abstracts.AirVehicle;
+import vehicles.abstracts.SpecCatalog;
+import vehicles.abstracts.VehicleType;
 
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
@@ -10,24 +14,39 @@ import vehicles.interfaces.CargoCarrier;
 import vehicles.interfaces.FuelConsumable;
 import vehicles.interfaces.Maintainable;
 import vehicles.interfaces.PassengerCarrier;
+import vehicles.interfaces.VehicleListener;
 
 public class Airplane extends AirVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
     private double fuelLevel;
-    private final int passengerCapacity = 200;
     private int currentPassengers;
-    private final double cargoCapacity = 10000; 
     private double currentCargo;
     private boolean maintenanceNeeded;
     private double mileageAtLastService;
 
     public Airplane(String id, String model, double maxSpeed, double maxAltitude) throws InvalidOperationException {
-        super(id, model, maxSpeed, maxAltitude);
+        super(id, SpecCatalog.spec(VehicleType.AIRPLANE, model), maxSpeed, maxAltitude);
         this.mileageAtLastService = 0.0;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return 5.0;
+        return getSpec().getFuelEfficiency();
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.AIRPLANE;
+    }
+
+    @Override
+    public String describeEvent(FleetEvent event, double value, double detail) {
+        switch (event) {
+            case MOVED: return String.format("Airplane %s is flying at %.1f ft for %.1f km.", getId(), getMaxAltitude(), value);
+            case MOVE_FAILED: return "Error moving Airplane " + getId() + ": Not enough fuel.";
+            case REFUELED: return String.format("Airplane %s refueled with %.1f liters. Current fuel: %.1f L.", getId(), value, detail);
+            case MAINTAINED: return "Maintenance performed on Airplane " + getId();
+            default: return super.describeEvent(event, value, detail);
+        }
     }
 
     // interfaces, one by one
@@ -36,7 +55,8 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
         this.fuelLevel = this.fuelLevel + amount;
-        System.out.printf("Airplane %s refueled with %.1f liters. Current fuel: %.1f L.%n", getId(), amount, this.fuelLevel);
+        notifyChanged(VehicleListener.Change.FUEL);
+        Events.publish(FleetEvent.REFUELED, this, amount, this.fuelLevel);
     }
 
     @Override
@@ -46,29 +66,39 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
-        double fuelNeeded = distance/calculateFuelEfficiency();
-        if (fuelNeeded > this.fuelLevel){
-            throw new InsufficientFuelException("Not enough fuel.");
+        double fuelUsed = tryConsumeFuel(distance);
+        if (fuelUsed < 0) {
+            throw new InsufficientFuelException("Not enough fuel.", false);
         }
+        return fuelUsed;
+    }
+
+    @Override
+    public double tryConsumeFuel(double distance) {
+        double fuelNeeded = distance / calculateFuelEfficiency();
+        if (fuelNeeded > this.fuelLevel) return NOT_ENOUGH_FUEL;
         this.fuelLevel -= fuelNeeded;
+        notifyChanged(VehicleListener.Change.FUEL);
         return fuelNeeded;
     }
     
     @Override
     public void boardPassengers(int count) throws OverloadException {
-        if (this.currentPassengers+count > this.passengerCapacity) throw new OverloadException("Passenger capacity exceeded.");
+        if (this.currentPassengers+count > getPassengerCapacity()) throw new OverloadException("Passenger capacity exceeded.");
         this.currentPassengers += count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
     public void disembarkPassengers(int count) throws InvalidOperationException {
         if (count>this.currentPassengers) throw new InvalidOperationException("Cannot disembark more passengers than on board.");
         this.currentPassengers-=count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
     public int getPassengerCapacity(){
-        return passengerCapacity;
+        return getSpec().getPassengerCapacity();
     }
 
     @Override
@@ -78,10 +108,11 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (this.currentCargo+weight > this.cargoCapacity){
+        if (this.currentCargo+weight > getCargoCapacity()){
             throw new OverloadException("Cargo capacity exceeded.");
         }   
         this.currentCargo += weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
@@ -90,70 +121,104 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             throw new InvalidOperationException("Cannot unload more cargo than loaded.");
         }
         this.currentCargo -= weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public double getCargoCapacity(){return cargoCapacity;}
+    public double getCargoCapacity(){return getSpec().getCargoCapacity();}
 
     @Override
     public double getCurrentCargo(){return currentCargo;}
 
     @Override
-    public void scheduleMaintenance(){this.maintenanceNeeded=true;}
+    public void scheduleMaintenance() {
+        this.maintenanceNeeded = true;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+    }
 
     @Override
     public boolean needsMaintenance() {
         // Checks mileage *since last service*
-        return (getCurrentMileage() - mileageAtLastService) > 10000 || maintenanceNeeded;
+        return getKmUntilService() < 0 || maintenanceNeeded;
+    }
+
+    @Override
+    public double getKmUntilService() {
+        return mileageAtLastService + SERVICE_INTERVAL_KM - getCurrentMileage();
+    }
+
+    @Override
+    public double getMileageAtLastService() {
+        return mileageAtLastService;
+    }
+
+    @Override
+    public boolean isMaintenanceNeeded() {
+        return maintenanceNeeded;
     }
 
     @Override
     public void performMaintenance(){
         this.maintenanceNeeded=false;
         this.mileageAtLastService = getCurrentMileage();
-        System.out.println("Maintenance performed on Airplane " + getId());
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+        Events.publish(FleetEvent.MAINTAINED, this);
     }
 
     @Override
     public void setCurrentPassengers(int count) throws OverloadException {
-        if (count < 0 || count > this.passengerCapacity) {
+        if (count < 0 || count > getPassengerCapacity()) {
             throw new OverloadException("Invalid initial passenger count.");
         }
         this.currentPassengers = count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
     public void setCurrentCargo(double weight) throws OverloadException {
-        if (weight < 0 || weight > this.cargoCapacity) {
+        if (weight < 0 || weight > getCargoCapacity()) {
             throw new OverloadException("Invalid initial cargo weight.");
         }
         this.currentCargo = weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
     public void setFuelLevel(double amount) {
         this.fuelLevel = amount; // Used for loading from file
+        notifyChanged(VehicleListener.Change.FUEL);
     }
 
     @Override
     public void setMileageAtLastService(double mileage) {
         this.mileageAtLastService = mileage;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public void setMaintenanceNeeded(boolean needed) {
         this.maintenanceNeeded = needed;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public void move(double distance) throws InvalidOperationException {
-        if (distance <= 0) throw new InvalidOperationException("Distance must be positive");
-        try {
-            consumeFuel(distance);
-            updateMileage(distance);
-            System.out.printf("Airplane %s is flying at %.1f ft for %.1f km.%n", getId(), getMaxAltitude(), distance);
-        } catch (InsufficientFuelException e) {
-            System.out.println("Error moving Airplane " + getId() + ": " + e.getMessage());
+        int status = tryMove(distance);
+        if (status == MOVE_INVALID_DISTANCE) {
+            throw new InvalidOperationException("Distance must be positive", false);
+        }
+        if (status == MOVE_NO_FUEL) {
+            Events.publish(FleetEvent.MOVE_FAILED, this, distance, 0);
+            return;
         }
+        Events.publish(FleetEvent.MOVED, this, distance, 0);
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance <= 0) return MOVE_INVALID_DISTANCE;
+        if (tryConsumeFuel(distance) < 0) return MOVE_NO_FUEL;
+        updateMileage(distance);
+        return MOVE_OK;
     }
 }
\ No newline at end of file
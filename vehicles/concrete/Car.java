@@ -1,24 +1,28 @@
 package vehicles.concrete;
 
+import events.Events;
+import events.FleetEvent;
 import exceptions.InsufficientFuelException;
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
 
 import vehicles.abstracts.LandVehicle;
+import vehicles.abstracts.SpecCatalog;
+import vehicles.abstracts.VehicleType;
 
 import vehicles.interfaces.FuelConsumable;
 import vehicles.interfaces.Maintainable;
 import vehicles.interfaces.PassengerCarrier;
+import vehicles.interfaces.VehicleListener;
 
 public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier, Maintainable {
     private double fuelLevel;
-    private final int passengerCapacity = 5;
     private int currentPassengers;
     private boolean maintenanceNeeded;
     private double mileageAtLastService;
 
     public Car(String id, String model, double maxSpeed) throws InvalidOperationException {
-        super(id, model, maxSpeed, 4);
+        super(id, SpecCatalog.spec(VehicleType.CAR, model), maxSpeed);
         this.fuelLevel = 0;
         this.currentPassengers = 0;
         this.maintenanceNeeded = false;
@@ -27,28 +31,52 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public void move(double distance) throws InvalidOperationException {
-        if (distance <= 0) {
-            throw new InvalidOperationException("Distance must be positive");
+        int status = tryMove(distance);
+        if (status == MOVE_INVALID_DISTANCE) {
+            throw new InvalidOperationException("Distance must be positive", false);
         }
-        try {
-            consumeFuel(distance);
-            updateMileage(distance);
-            System.out.printf("Car %s is driving on the road for %.1f km.%n", getId(), distance);
-        } catch (InsufficientFuelException e) {
-            System.out.println("Error moving Car " + getId() + ": " + e.getMessage());
+        if (status == MOVE_NO_FUEL) {
+            Events.publish(FleetEvent.MOVE_FAILED, this, distance, 0);
+            return;
         }
+        Events.publish(FleetEvent.MOVED, this, distance, 0);
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance <= 0) return MOVE_INVALID_DISTANCE;
+        if (tryConsumeFuel(distance) < 0) return MOVE_NO_FUEL;
+        updateMileage(distance);
+        return MOVE_OK;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return 15.0;
+        return getSpec().getFuelEfficiency();
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.CAR;
+    }
+
+    @Override
+    public String describeEvent(FleetEvent event, double value, double detail) {
+        switch (event) {
+            case MOVED: return String.format("Car %s is driving on the road for %.1f km.", getId(), value);
+            case MOVE_FAILED: return "Error moving Car " + getId() + ": Not enough fuel for the journey.";
+            case REFUELED: return String.format("Car %s refueled with %.1f liters. Current fuel: %.1f L.", getId(), value, detail);
+            case MAINTAINED: return "Maintenance performed on Car " + getId() + ".";
+            default: return super.describeEvent(event, value, detail);
+        }
     }
 
     @Override
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
         this.fuelLevel += amount;
-        System.out.printf("Car %s refueled with %.1f liters. Current fuel: %.1f L.%n", getId(), amount, this.fuelLevel);
+        notifyChanged(VehicleListener.Change.FUEL);
+        Events.publish(FleetEvent.REFUELED, this, amount, this.fuelLevel);
     }
 
     @Override
@@ -58,20 +86,29 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
-        double fuelNeeded = distance / calculateFuelEfficiency();
-        if (fuelNeeded > this.fuelLevel) {
-            throw new InsufficientFuelException("Not enough fuel for the journey.");
+        double fuelUsed = tryConsumeFuel(distance);
+        if (fuelUsed < 0) {
+            throw new InsufficientFuelException("Not enough fuel for the journey.", false);
         }
+        return fuelUsed;
+    }
+
+    @Override
+    public double tryConsumeFuel(double distance) {
+        double fuelNeeded = distance / calculateFuelEfficiency();
+        if (fuelNeeded > this.fuelLevel) return NOT_ENOUGH_FUEL;
         this.fuelLevel -= fuelNeeded;
+        notifyChanged(VehicleListener.Change.FUEL);
         return fuelNeeded;
     }
     
     @Override
     public void boardPassengers(int count) throws OverloadException {
-        if (this.currentPassengers + count > this.passengerCapacity) {
+        if (this.currentPassengers + count > getPassengerCapacity()) {
             throw new OverloadException("Passenger capacity exceeded.");
         }
         this.currentPassengers += count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
@@ -80,10 +117,11 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Cannot disembark more passengers than are on board.");
         }
         this.currentPassengers -= count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
     
     @Override
-    public int getPassengerCapacity() { return passengerCapacity; }
+    public int getPassengerCapacity() { return getSpec().getPassengerCapacity(); }
     
     @Override
     public int getCurrentPassengers() { return currentPassengers; }
@@ -91,41 +129,62 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void scheduleMaintenance() {
         this.maintenanceNeeded = true;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public boolean needsMaintenance() {
         // Checks mileage *since last service*
-        return (getCurrentMileage() - mileageAtLastService) > 10000 || maintenanceNeeded;
+        return getKmUntilService() < 0 || maintenanceNeeded;
+    }
+
+    @Override
+    public double getKmUntilService() {
+        return mileageAtLastService + SERVICE_INTERVAL_KM - getCurrentMileage();
+    }
+
+    @Override
+    public double getMileageAtLastService() {
+        return mileageAtLastService;
+    }
+
+    @Override
+    public boolean isMaintenanceNeeded() {
+        return maintenanceNeeded;
     }
 
     @Override
     public void performMaintenance() {
         this.maintenanceNeeded = false;
         this.mileageAtLastService = getCurrentMileage();
-        System.out.println("Maintenance performed on Car " + getId() + ".");
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+        Events.publish(FleetEvent.MAINTAINED, this);
     }
 
     @Override
     public void setCurrentPassengers(int count) throws OverloadException {
-        if (count < 0 || count > this.passengerCapacity) {
+        if (count < 0 || count > getPassengerCapacity()) {
             throw new OverloadException("Invalid initial passenger count.");
         }
         this.currentPassengers = count;
+        notifyChanged(VehicleListener.Change.PASSENGERS);
     }
 
     @Override
     public void setFuelLevel(double amount) {
         this.fuelLevel = amount; // Used for loading from file
+        notifyChanged(VehicleListener.Change.FUEL);
     }
 
     @Override
     public void setMileageAtLastService(double mileage) {
         this.mileageAtLastService = mileage;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public void setMaintenanceNeeded(boolean needed) {
         this.maintenanceNeeded = needed;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 }
\ No newline at end of file
@@ -1,97 +1,154 @@
 package vehicles.concrete;
 
+import events.Events;
+import events.FleetEvent;
 import exceptions.InsufficientFuelException;
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
+import vehicles.abstracts.SpecCatalog;
+import vehicles.abstracts.VehicleSpec;
 import vehicles.abstracts.WaterVehicle;
+import vehicles.abstracts.VehicleType;
 import vehicles.interfaces.CargoCarrier;
 import vehicles.interfaces.FuelConsumable;
 import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.VehicleListener;
 
 public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
-    private final double cargoCapacity = 50000; // kg
     private double currentCargo;
     private boolean maintenanceNeeded;
     private double mileageAtLastService;
     private double fuelLevel;
 
     public CargoShip(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
-        super(id, model, maxSpeed, hasSail);
+        super(id, SpecCatalog.spec(VehicleType.CARGO_SHIP, model), maxSpeed, hasSail);
         this.mileageAtLastService = 0.0;
     }
     
     @Override
     public void move(double distance) throws InvalidOperationException {
-        if (distance <= 0) throw new InvalidOperationException("Distance must be positive.");
-        try {
-            if (!hasSail()) {
-                consumeFuel(distance);
-            }
-            updateMileage(distance);
-            System.out.printf("CargoShip %s is sailing with cargo for %.1f km.%n", getId(), distance);
-        } catch (InsufficientFuelException e) {
-            System.out.println("Error moving CargoShip " + getId() + ": " + e.getMessage());
+        int status = tryMove(distance);
+        if (status == MOVE_INVALID_DISTANCE) {
+            throw new InvalidOperationException("Distance must be positive.", false);
         }
+        if (status == MOVE_NO_FUEL) {
+            Events.publish(FleetEvent.MOVE_FAILED, this, distance, 0);
+            return;
+        }
+        Events.publish(FleetEvent.MOVED, this, distance, 0);
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance <= 0) return MOVE_INVALID_DISTANCE;
+        if (tryConsumeFuel(distance) < 0) return MOVE_NO_FUEL;
+        updateMileage(distance);
+        return MOVE_OK;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return hasSail() ? 0 : 4.0;
+        return fuelEfficiency(getSpec(), hasSail());
+    }
+
+    // Sailing ships burn no fuel and report 0, also used by ships stored off-heap
+    public static double fuelEfficiency(VehicleSpec spec, boolean hasSail) {
+        return hasSail ? 0 : spec.getFuelEfficiency();
+    }
+
+    @Override
+    public VehicleType getType() {
+        return VehicleType.CARGO_SHIP;
+    }
+
+    @Override
+    public String describeEvent(FleetEvent event, double value, double detail) {
+        switch (event) {
+            case MOVED: return String.format("CargoShip %s is sailing with cargo for %.1f km.", getId(), value);
+            case MOVE_FAILED: return "Error moving CargoShip " + getId() + ": Not enough fuel.";
+            case MAINTAINED: return "Maintenance performed on CargoShip " + getId() + ".";
+            default: return super.describeEvent(event, value, detail);
+        }
     }
     
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (this.currentCargo + weight > this.cargoCapacity) throw new OverloadException("Cargo capacity exceeded.");
+        if (this.currentCargo + weight > getCargoCapacity()) throw new OverloadException("Cargo capacity exceeded.");
         this.currentCargo += weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
     public void unloadCargo(double weight) throws InvalidOperationException {
         if (weight > this.currentCargo) throw new InvalidOperationException("Cannot unload more cargo than loaded.");
         this.currentCargo -= weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public double getCargoCapacity() { return cargoCapacity; }
+    public double getCargoCapacity() { return getSpec().getCargoCapacity(); } // kg
 
     @Override
     public double getCurrentCargo() { return currentCargo; }
     
     @Override
-    public void scheduleMaintenance() { this.maintenanceNeeded = true; }
+    public void scheduleMaintenance() {
+        this.maintenanceNeeded = true;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+    }
     @Override
     public boolean needsMaintenance() {
         // Checks mileage *since last service*
-        return (getCurrentMileage() - mileageAtLastService) > 10000 || maintenanceNeeded;
+        return getKmUntilService() < 0 || maintenanceNeeded;
+    }
+
+    @Override
+    public double getKmUntilService() {
+        return mileageAtLastService + SERVICE_INTERVAL_KM - getCurrentMileage();
+    }
+
+    @Override
+    public double getMileageAtLastService() {
+        return mileageAtLastService;
+    }
+
+    @Override
+    public boolean isMaintenanceNeeded() {
+        return maintenanceNeeded;
     }
     @Override
     public void performMaintenance() {
         this.maintenanceNeeded = false;
         this.mileageAtLastService = getCurrentMileage();
-        System.out.println("Maintenance performed on CargoShip " + getId() + ".");
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+        Events.publish(FleetEvent.MAINTAINED, this);
     }
 
     @Override
     public void setCurrentCargo(double weight) throws OverloadException {
-        if (weight < 0 || weight > this.cargoCapacity) {
+        if (weight < 0 || weight > getCargoCapacity()) {
             throw new OverloadException("Invalid initial cargo weight.");
         }
         this.currentCargo = weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
     public void setFuelLevel(double amount) {
         this.fuelLevel = amount; // Used for loading from file
+        notifyChanged(VehicleListener.Change.FUEL);
     }
 
     @Override
     public void setMileageAtLastService(double mileage) {
         this.mileageAtLastService = mileage;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public void setMaintenanceNeeded(boolean needed) {
         this.maintenanceNeeded = needed;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
@@ -99,15 +156,26 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (hasSail()) throw new InvalidOperationException("Sailing ships do not consume fuel.");
         if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
         this.fuelLevel += amount;
+        notifyChanged(VehicleListener.Change.FUEL);
     }
     @Override
     public double getFuelLevel() { return hasSail() ? 0 : fuelLevel; }
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
+        double fuelUsed = tryConsumeFuel(distance);
+        if (fuelUsed < 0) {
+            throw new InsufficientFuelException("Not enough fuel.", false);
+        }
+        return fuelUsed;
+    }
+
+    @Override
+    public double tryConsumeFuel(double distance) {
         if (hasSail()) return 0;
         double fuelNeeded = distance / calculateFuelEfficiency();
-        if (fuelNeeded > this.fuelLevel) throw new InsufficientFuelException("Not enough fuel.");
+        if (fuelNeeded > this.fuelLevel) return NOT_ENOUGH_FUEL;
         this.fuelLevel = this.fuelLevel - fuelNeeded;
+        notifyChanged(VehicleListener.Change.FUEL);
         return fuelNeeded;
     }
 }
\ No newline at end of file
@@ -1,24 +1,29 @@
 package vehicles.concrete;
 
+import events.Events;
+import events.FleetEvent;
 import exceptions.InsufficientFuelException;
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
 
 import vehicles.abstracts.LandVehicle;
+import vehicles.abstracts.SpecCatalog;
+import vehicles.abstracts.VehicleSpec;
+import vehicles.abstracts.VehicleType;
 
 import vehicles.interfaces.CargoCarrier;
 import vehicles.interfaces.FuelConsumable;
 import vehicles.interfaces.Maintainable;
+import vehicles.interfaces.VehicleListener;
 
 public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
     private double fuelLevel;
-    private final double cargoCapacity = 5000;
     private double currentCargo;
     private boolean maintenanceNeeded;
     private double mileageAtLastService;
 
     public Truck(String id, String model, double maxSpeed) throws InvalidOperationException {
-        super(id, model, maxSpeed, 6);
+        super(id, SpecCatalog.spec(VehicleType.TRUCK, model), maxSpeed);
         this.fuelLevel = 0;
         this.currentCargo = 0;
         this.maintenanceNeeded = false;
@@ -27,32 +32,66 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
     @Override
     public void move(double distance) throws InvalidOperationException {
-        if (distance <= 0) {
-            throw new InvalidOperationException("Distance must be positive.");
+        int status = tryMove(distance);
+        if (status == MOVE_INVALID_DISTANCE) {
+            throw new InvalidOperationException("Distance must be positive.", false);
         }
-        try {
-            consumeFuel(distance);
-            updateMileage(distance);
-            System.out.println("Truck " + getId() + " is hauling cargo for " + distance + " km.");
-        } catch (InsufficientFuelException e) {
-            System.out.println("Error moving Truck " + getId() + ": " + e.getMessage());
+        if (status == MOVE_NO_FUEL) {
+            Events.publish(FleetEvent.MOVE_FAILED, this, distance, 0);
+            return;
         }
+        Events.publish(FleetEvent.MOVED, this, distance, 0);
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance <= 0) return MOVE_INVALID_DISTANCE;
+        if (tryConsumeFuel(distance) < 0) return MOVE_NO_FUEL;
+        updateMileage(distance);
+        return MOVE_OK;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        double baseEfficiency = 8.0; 
-        if (this.currentCargo > (this.cargoCapacity * 0.5)) { // As per A1 PDF
+        return calculateFuelEfficiency(this.currentCargo);
+    }
+
+    // Efficiency with the given cargo on board, used to plan a load before taking it
+    public double calculateFuelEfficiency(double cargo) {
+        return fuelEfficiency(getSpec(), cargo);
+    }
+
+    // Efficiency of a truck of this spec carrying `cargo` kg, also used by trucks stored off-heap
+    public static double fuelEfficiency(VehicleSpec spec, double cargo) {
+        double baseEfficiency = spec.getFuelEfficiency();
+        if (cargo > (spec.getCargoCapacity() * 0.5)) { // As per A1 PDF
             return baseEfficiency * 0.9; // 10% reduction
         }
         return baseEfficiency;
     }
 
+    @Override
+    public VehicleType getType() {
+        return VehicleType.TRUCK;
+    }
+
+    @Override
+    public String describeEvent(FleetEvent event, double value, double detail) {
+        switch (event) {
+            case MOVED: return "Truck " + getId() + " is hauling cargo for " + value + " km.";
+            case MOVE_FAILED: return "Error moving Truck " + getId() + ": Not enough fuel for the journey.";
+            case REFUELED: return String.format("Truck %s refueled with %.1f liters. Current fuel: %.1f L.", getId(), value, detail);
+            case MAINTAINED: return "Maintenance performed on Truck " + getId() + ".";
+            default: return super.describeEvent(event, value, detail);
+        }
+    }
+
     @Override
     public void refuel(double amount) throws InvalidOperationException {
          if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive.");
         this.fuelLevel += amount;
-        System.out.printf("Truck %s refueled with %.1f liters. Current fuel: %.1f L.%n", getId(), amount, this.fuelLevel);
+        notifyChanged(VehicleListener.Change.FUEL);
+        Events.publish(FleetEvent.REFUELED, this, amount, this.fuelLevel);
     }
     
     @Override
@@ -60,20 +99,29 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException {
-        double fuelNeeded = distance / calculateFuelEfficiency();
-        if (fuelNeeded > this.fuelLevel) {
-            throw new InsufficientFuelException("Not enough fuel for the journey.");
+        double fuelUsed = tryConsumeFuel(distance);
+        if (fuelUsed < 0) {
+            throw new InsufficientFuelException("Not enough fuel for the journey.", false);
         }
+        return fuelUsed;
+    }
+
+    @Override
+    public double tryConsumeFuel(double distance) {
+        double fuelNeeded = distance / calculateFuelEfficiency();
+        if (fuelNeeded > this.fuelLevel) return NOT_ENOUGH_FUEL;
         this.fuelLevel -= fuelNeeded;
+        notifyChanged(VehicleListener.Change.FUEL);
         return fuelNeeded;
     }
 
     @Override
     public void loadCargo(double weight) throws OverloadException {
-        if (this.currentCargo + weight > this.cargoCapacity) {
+        if (this.currentCargo + weight > getCargoCapacity()) {
             throw new OverloadException("Cargo capacity exceeded.");
         }
         this.currentCargo += weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
@@ -82,50 +130,74 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             throw new InvalidOperationException("Cannot unload more cargo than is loaded.");
         }
         this.currentCargo -= weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
-    public double getCargoCapacity() { return cargoCapacity; }
+    public double getCargoCapacity() { return getSpec().getCargoCapacity(); }
     
     @Override
     public double getCurrentCargo() { return currentCargo; }
     
     @Override
-    public void scheduleMaintenance() { this.maintenanceNeeded = true; }
+    public void scheduleMaintenance() {
+        this.maintenanceNeeded = true;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+    }
 
     @Override
     public boolean needsMaintenance() {
         // Checks mileage *since last service*
-        return (getCurrentMileage() - mileageAtLastService) > 10000 || maintenanceNeeded;
+        return getKmUntilService() < 0 || maintenanceNeeded;
+    }
+
+    @Override
+    public double getKmUntilService() {
+        return mileageAtLastService + SERVICE_INTERVAL_KM - getCurrentMileage();
+    }
+
+    @Override
+    public double getMileageAtLastService() {
+        return mileageAtLastService;
+    }
+
+    @Override
+    public boolean isMaintenanceNeeded() {
+        return maintenanceNeeded;
     }
 
     @Override
     public void performMaintenance() {
         this.maintenanceNeeded = false;
         this.mileageAtLastService = getCurrentMileage();
-        System.out.println("Maintenance performed on Truck " + getId() + ".");
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
+        Events.publish(FleetEvent.MAINTAINED, this);
     }
 
     @Override
     public void setCurrentCargo(double weight) throws OverloadException {
-        if (weight < 0 || weight > this.cargoCapacity) {
+        if (weight < 0 || weight > getCargoCapacity()) {
             throw new OverloadException("Invalid initial cargo weight.");
         }
         this.currentCargo = weight;
+        notifyChanged(VehicleListener.Change.CARGO);
     }
 
     @Override
     public void setFuelLevel(double amount) {
         this.fuelLevel = amount; // Used for loading from file
+        notifyChanged(VehicleListener.Change.FUEL);
     }
 
     @Override
     public void setMileageAtLastService(double mileage) {
         this.mileageAtLastService = mileage;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 
     @Override
     public void setMaintenanceNeeded(boolean needed) {
         this.maintenanceNeeded = needed;
+        notifyChanged(VehicleListener.Change.MAINTENANCE);
     }
 }
\ No newline at end of file
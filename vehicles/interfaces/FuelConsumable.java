@@ -4,8 +4,13 @@ import exceptions.InsufficientFuelException;
 import exceptions.InvalidOperationException;
 
 public interface FuelConsumable {
+    // Returned by tryConsumeFuel when the tank doesn't hold enough
+    double NOT_ENOUGH_FUEL = -1;
+
     void refuel(double amount) throws InvalidOperationException;
     double getFuelLevel();
     double consumeFuel(double distance) throws InsufficientFuelException;
+    // Same as consumeFuel but returns NOT_ENOUGH_FUEL instead of throwing
+    double tryConsumeFuel(double distance);
     void setFuelLevel(double amount);
 }
\ No newline at end of file
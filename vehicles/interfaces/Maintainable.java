@@ -1,9 +1,17 @@
 package vehicles.interfaces;
 
 public interface Maintainable {
+    // Service is due once a vehicle has driven more than this since its last service
+    double SERVICE_INTERVAL_KM = 10000;
+
     void scheduleMaintenance();
     boolean needsMaintenance();
     void performMaintenance();
     void setMileageAtLastService(double mileage);
     void setMaintenanceNeeded(boolean needed);
+    // Kilometres left before the service interval runs out, negative once overdue
+    double getKmUntilService();
+    double getMileageAtLastService();
+    // The flag set by scheduleMaintenance, not the mileage check
+    boolean isMaintenanceNeeded();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package vehicles.interfaces;
+
+import vehicles.abstracts.Vehicle;
+
+// Notified whenever a vehicle's state changes, so owners can keep their indexes up to date
+public interface VehicleListener {
+    enum Change {
+        MILEAGE,
+        FUEL,
+        CARGO,
+        PASSENGERS,
+        MAINTENANCE
+    }
+
+    void vehicleChanged(Vehicle vehicle, Change change);
+}